@@ -23,6 +23,7 @@ import com.google.android.gms.location.LocationServices;
 import com.nightskylab.ui.LocationDialog;
 import com.nightskylab.views.SkyView;
 
+import java.io.File;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Locale;
@@ -35,6 +36,10 @@ public class MainActivity extends AppCompatActivity implements LocationDialog.Lo
 
     private static final int LOCATION_PERMISSION_REQUEST = 1001;
 
+    // Optional tiled deep catalog in app storage (StarTileFormat), written by
+    // :app:installStarTiles to app-specific external storage
+    private static final String DEEP_CATALOG_FILE = "star_tiles.bin";
+
     private SkyView skyView;
     private TextView txtDate, txtLocation, txtViewDirection, txtTimeSpeed;
     private TextView txtUtcTime, txtLocalTime;
@@ -61,7 +66,11 @@ public class MainActivity extends AppCompatActivity implements LocationDialog.Lo
         uiLayer = findViewById(R.id.uiLayer);
 
         // Load sky data
-        skyView.loadData(R.raw.stars, R.raw.constellations);
+        skyView.loadData(R.raw.star_catalog, R.raw.constellations, R.raw.constellation_bounds);
+        File deepCatalog = findDeepCatalog();
+        if (deepCatalog != null) {
+            skyView.loadDeepCatalog(deepCatalog);
+        }
 
         // Set up gesture callbacks
         skyView.setGestureCallbacks(new SkyView.GestureCallbacks() {
@@ -142,6 +151,22 @@ public class MainActivity extends AppCompatActivity implements LocationDialog.Lo
         uiUpdateHandler.post(uiUpdateRunnable);
     }
 
+    /**
+     * Deep catalog in app-specific external storage, where installStarTiles
+     * pushes it, or in internal storage; null if neither has one.
+     */
+    private File findDeepCatalog() {
+        File[] dirs = { getExternalFilesDir(null), getFilesDir() };
+        for (File dir : dirs) {
+            if (dir == null)
+                continue; // External storage unavailable
+            File file = new File(dir, DEEP_CATALOG_FILE);
+            if (file.exists())
+                return file;
+        }
+        return null;
+    }
+
     private String getTimeSpeedLabel(double speed) {
         if (speed == 0)
             return "⏸ Paused";
@@ -202,7 +227,12 @@ public class MainActivity extends AppCompatActivity implements LocationDialog.Lo
         double azDeg = Math.toDegrees(skyView.getViewAzimuth());
         azDeg = (azDeg + 360) % 360;
         String dir = getCardinalDirection(azDeg);
-        txtViewDirection.setText(String.format(Locale.getDefault(), "%s (%.0f°)", dir, azDeg));
+        String constellation = skyView.getViewCenterConstellation();
+        if (constellation != null) {
+            txtViewDirection.setText(String.format(Locale.getDefault(), "%s (%.0f°) · %s", dir, azDeg, constellation));
+        } else {
+            txtViewDirection.setText(String.format(Locale.getDefault(), "%s (%.0f°)", dir, azDeg));
+        }
 
         // Update time speed
         double speed = skyView.getTimeSpeed();
@@ -471,9 +501,16 @@ public class MainActivity extends AppCompatActivity implements LocationDialog.Lo
         }
     }
 
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        skyView.onTrimMemory(level);
+    }
+
     @Override
     protected void onDestroy() {
         super.onDestroy();
         uiUpdateHandler.removeCallbacks(uiUpdateRunnable);
+        skyView.closeDeepCatalog();
     }
 }
@@ -1,25 +1,37 @@
 package com.nightskylab.views;
 
+import android.content.ComponentCallbacks2;
 import android.content.Context;
+import android.content.res.Resources;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
 import android.graphics.Path;
 import android.graphics.PointF;
 import android.util.AttributeSet;
+import android.util.Log;
 import android.view.MotionEvent;
 import android.view.View;
 
-import com.nightskylab.astronomy.AstronomyEngine;
 import com.nightskylab.astronomy.CelestialBody;
+import com.nightskylab.astronomy.ChebyshevEphemerisCache;
 import com.nightskylab.astronomy.Coordinates;
+import com.nightskylab.astronomy.EphemerisSnapshot;
+import com.nightskylab.astronomy.SimulationClock;
+import com.nightskylab.astronomy.SkyCellIndex;
+import com.nightskylab.astronomy.SkyProjection;
+import com.nightskylab.data.ConstellationBoundaries;
 import com.nightskylab.data.ConstellationData;
 import com.nightskylab.data.StarCatalog;
+import com.nightskylab.data.StarTileCache;
 import com.nightskylab.utils.GestureHandler;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * Custom view that renders the night sky with stars, planets, and
@@ -37,6 +49,9 @@ public class SkyView extends View implements GestureHandler.GestureListener {
     private double minFovScale = 0.3; // Zoomed in (narrow FOV)
     private double maxFovScale = 2.5; // Zoomed out (wide FOV)
 
+    // Faintest magnitude drawn at fovScale 1; zooming in reveals fainter stars
+    private static final double LIMITING_MAGNITUDE = 6.5;
+
     // Observer location
     private double latitude = 38.7; // Lisbon default
     private double longitude = -9.1;
@@ -47,10 +62,10 @@ public class SkyView extends View implements GestureHandler.GestureListener {
     private double viewAltitude = Math.PI / 6; // 30 degrees up
 
     // Time
-    private Date currentDate = new Date();
-    private double timeSpeed = 1.0; // Real-time
-    private boolean paused = false;
-    private long lastFrameTime = System.currentTimeMillis();
+    private final SimulationClock clock = new SimulationClock();
+
+    // Local sidereal time for the frame being drawn (radians)
+    private double frameLst;
 
     // Display modes
     public enum ConstellationMode {
@@ -65,16 +80,86 @@ public class SkyView extends View implements GestureHandler.GestureListener {
     private StarNameMode starNameMode = StarNameMode.OFF;
     private boolean gridVisible = false;
 
-    // Data
-    private StarCatalog starCatalog;
-    private ConstellationData constellationData;
-    private List<CelestialBody> planets;
-    private CelestialBody sun, moon;
+    // Data, published whole by the loader thread (never modified after publication)
+    private volatile StarCatalog starCatalog;
+    private volatile ConstellationData constellationData;
+    private volatile ConstellationBoundaries constellationBoundaries;
+    private final ChebyshevEphemerisCache ephemerisCache = new ChebyshevEphemerisCache(256);
+    private final EphemerisSnapshot ephemeris = new EphemerisSnapshot(ephemerisCache);
 
     // Rendering
     private Paint skyPaint, starPaint, planetPaint, linePaint, textPaint, gridPaint;
+    private Paint horizonPaint, cardinalPaint, starNamePaint, bodyNamePaint;
+    private final Path clipPath = new Path();
     private GestureHandler gestureHandler;
-    private boolean dataLoaded = false;
+    private volatile boolean dataLoaded = false;
+
+    // Progressive loading: stars in the first batch, then 8x per batch
+    private static final String TAG = "SkyView";
+    private static final int FIRST_STAR_BATCH = 64;
+    private volatile int loadGeneration;
+
+    // Simulated time of the last frame, so the loader thread can precess
+    // data before publishing it instead of drawing J2000.0 positions
+    private volatile long epochTimeMillis;
+    private long loadStartNanos;
+    private long firstMeaningfulFrameMillis = -1;
+
+    // Constellation at the view center, looked up each frame (-1 if unknown)
+    private final SkyCellIndex.Cap viewCenterCap = new SkyCellIndex.Cap();
+    private final SkyCellIndex.Cap viewCenterJ2000 = new SkyCellIndex.Cap();
+    private final double[] viewCenterMatrix = new double[9];
+    private int viewCenterConstellation = -1;
+    private String viewCenterConstellationName;
+
+    // Projection rebuilt once per frame; screenPoint receives projected x/y
+    private final SkyProjection projection = new SkyProjection();
+    private final float[] screenPoint = new float[2];
+
+    // Star culling: view and horizon caps, and the sky cells they cover
+    private final SkyCellIndex.Cap[] starCaps = { new SkyCellIndex.Cap(), new SkyCellIndex.Cap() };
+    private final SkyCellIndex.Ranges visibleStarRanges = new SkyCellIndex.Ranges();
+
+    // Deep catalog streamed from disk (optional), projected from J2000.0
+    private static final long DEEP_CATALOG_BUDGET = 16L << 20;
+    private StarTileCache deepCatalog;
+    private final SkyProjection deepProjection = new SkyProjection();
+    private final double[] epochMatrix = new double[9];
+    private final SkyCellIndex.Cap[] deepCaps = { new SkyCellIndex.Cap(), new SkyCellIndex.Cap() };
+    private final List<StarTileCache.Tile> visibleTiles = new ArrayList<>();
+
+    // Horizon and grid geometry, valid for the view state recorded below
+    private static final String[] CARDINAL_NAMES = { "N", "E", "S", "W" };
+    private static final int[] CARDINAL_AZIMUTHS = { 0, 90, 180, 270 };
+    private final Path horizonPath = new Path();
+    private final Path gridPath = new Path();
+    private final float[] cardinalPoints = new float[8];
+    private final boolean[] cardinalVisible = new boolean[4];
+    private boolean gridPathsValid = false;
+    private double gridViewAzimuth, gridViewAltitude, gridFovScale;
+    private float gridGlobeRadius, gridCenterX, gridCenterY;
+    private boolean gridFastProjection;
+
+    // Constellation lines: one reused path, a J2000.0 projection and culling caps
+    private final Path constellationPath = new Path();
+    private final SkyProjection constellationProjection = new SkyProjection();
+    private final double[] constellationMatrix = new double[9];
+    private final SkyCellIndex.Cap[] constellationCaps = { new SkyCellIndex.Cap(), new SkyCellIndex.Cap() };
+    private int constellationsDrawn, constellationsCulled;
+
+    // Constellation lines are split per segment until within this of the arc
+    private static final double ARC_TOLERANCE_PIXELS = 0.5;
+    private final SkyProjection.ArcSink constellationSink = new SkyProjection.ArcSink() {
+        @Override
+        public void moveTo(float x, float y) {
+            constellationPath.moveTo(x, y);
+        }
+
+        @Override
+        public void lineTo(float x, float y) {
+            constellationPath.lineTo(x, y);
+        }
+    };
 
     // Callback for gestures that need MainActivity
     public interface GestureCallbacks {
@@ -126,26 +211,167 @@ public class SkyView extends View implements GestureHandler.GestureListener {
         gridPaint.setStrokeWidth(1.5f); // Slightly thicker
         gridPaint.setAntiAlias(true);
 
+        horizonPaint = new Paint();
+        horizonPaint.setColor(Color.parseColor("#00AAAA")); // Cyan
+        horizonPaint.setStyle(Paint.Style.STROKE);
+        horizonPaint.setStrokeWidth(3f); // Thick line
+        horizonPaint.setAntiAlias(true);
+        horizonPaint.setAlpha(180);
+
+        cardinalPaint = new Paint();
+        cardinalPaint.setColor(Color.parseColor("#FFCC00"));
+        cardinalPaint.setTextSize(32f);
+        cardinalPaint.setTextAlign(Paint.Align.CENTER);
+        cardinalPaint.setAntiAlias(true);
+        cardinalPaint.setFakeBoldText(true);
+        cardinalPaint.setShadowLayer(3f, 1f, 1f, Color.BLACK);
+
+        starNamePaint = new Paint(textPaint);
+        starNamePaint.setTextSize(20f);
+        starNamePaint.setColor(Color.parseColor("#8899AA"));
+
+        bodyNamePaint = new Paint(textPaint);
+        bodyNamePaint.setTextSize(24f);
+
         // Initialize gesture handler
         gestureHandler = new GestureHandler(context, this);
 
         // Initialize data structures
         starCatalog = new StarCatalog();
         constellationData = new ConstellationData();
-        planets = new ArrayList<>();
 
         // Start animation loop
         post(animationRunnable);
     }
 
     /**
-     * Load sky data from resources.
+     * Load sky data from resources on a background thread.
+     *
+     * Both catalogs are binary, compiled from app/catalog at build time.
+     * Constellation lines and the brightest stars are published first; fainter
+     * stars follow in larger batches, each swapped in as a complete catalog.
+     * Drawing starts with the first batch; the time to that first frame is
+     * logged and available from getFirstMeaningfulFrameMillis().
+     *
+     * @param starsResourceId          Star catalog (StarCatalogFormat)
+     * @param constellationsResourceId Constellation lines (ConstellationFormat)
      */
     public void loadData(int starsResourceId, int constellationsResourceId) {
-        starCatalog.loadFromResource(getContext(), starsResourceId);
-        constellationData.loadFromResource(getContext(), constellationsResourceId);
-        dataLoaded = true;
-        invalidate();
+        loadData(starsResourceId, constellationsResourceId, 0);
+    }
+
+    /**
+     * Like loadData(int, int), also loading IAU constellation boundaries
+     * (see ConstellationBoundaries) before the stars, so every star batch is
+     * tagged with its constellation and the view center can be named.
+     *
+     * @param boundariesResourceId Boundary strip table, compiled from
+     *                             app/catalog like the catalogs; 0 for none
+     */
+    public void loadData(final int starsResourceId, final int constellationsResourceId,
+            final int boundariesResourceId) {
+        final int generation = ++loadGeneration;
+        final Resources resources = getResources();
+        epochTimeMillis = clock.getTimeMillis();
+        loadStartNanos = System.nanoTime();
+        firstMeaningfulFrameMillis = -1;
+
+        Thread loader = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                ConstellationData constellations = new ConstellationData();
+                constellations.loadBinary(resources.openRawResource(constellationsResourceId));
+                constellations.precessNow(epochTimeMillis);
+                if (generation == loadGeneration) {
+                    constellationData = constellations; // Drawn once the first stars arrive
+                }
+
+                final ConstellationBoundaries boundaries = loadBoundaries(resources, boundariesResourceId);
+                if (generation == loadGeneration) {
+                    constellationBoundaries = boundaries;
+                }
+
+                StarCatalog.loadBinaryProgressive(resources.openRawResource(starsResourceId), FIRST_STAR_BATCH,
+                        new StarCatalog.BatchListener() {
+                            @Override
+                            public void onBatch(StarCatalog catalog, boolean complete) {
+                                if (generation != loadGeneration)
+                                    return; // Superseded by a newer loadData()
+                                if (boundaries != null) {
+                                    catalog.tagConstellations(boundaries);
+                                }
+                                // Each batch is a new catalog starting at J2000.0
+                                catalog.precessNow(epochTimeMillis);
+                                starCatalog = catalog;
+                                dataLoaded = true;
+                                if (complete) {
+                                    Log.i(TAG, String.format(Locale.ROOT, "Loaded %d stars in %.1f ms",
+                                            catalog.getStarCount(), (System.nanoTime() - loadStartNanos) / 1e6));
+                                }
+                                postInvalidate();
+                            }
+                        });
+            }
+        }, "sky-data");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    /**
+     * Read a boundary strip table; null if there is none or it holds no
+     * constellations.
+     */
+    private static ConstellationBoundaries loadBoundaries(Resources resources, int resourceId) {
+        if (resourceId == 0)
+            return null;
+        ConstellationBoundaries boundaries = new ConstellationBoundaries();
+        boundaries.load(resources.openRawResource(resourceId));
+        return boundaries.getConstellationCount() > 0 ? boundaries : null;
+    }
+
+    /**
+     * Milliseconds from loadData() to the first frame drawn with data, or -1
+     * before that frame.
+     */
+    public long getFirstMeaningfulFrameMillis() {
+        return firstMeaningfulFrameMillis;
+    }
+
+    /**
+     * Stream fainter stars from a tiled deep catalog (StarTileFormat) on top
+     * of the resident catalog. Tiles load in the background as the view moves.
+     */
+    public void loadDeepCatalog(File file) {
+        closeDeepCatalog();
+        try {
+            deepCatalog = StarTileCache.open(file, DEEP_CATALOG_BUDGET);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    public void closeDeepCatalog() {
+        if (deepCatalog != null) {
+            deepCatalog.close();
+            deepCatalog = null;
+        }
+    }
+
+    /**
+     * Release cached deep catalog tiles under memory pressure
+     * (ComponentCallbacks2 trim level).
+     */
+    public void onTrimMemory(int level) {
+        if (deepCatalog == null)
+            return;
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) {
+            // Critical, hidden or in the background: tiles reload on demand
+            deepCatalog.trim(0);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            deepCatalog.trim(deepCatalog.getByteBudget() / 4);
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) {
+            deepCatalog.trim(deepCatalog.getByteBudget() / 2);
+        }
     }
 
     @Override
@@ -158,6 +384,15 @@ public class SkyView extends View implements GestureHandler.GestureListener {
         // Use the minimum dimension to ensure it fits, but maximize size
         float minDim = Math.min(w, h);
         globeRadius = minDim * 0.48f; // Increased from 0.45 to 0.48 for larger globe
+        projection.setScreen(centerX, centerY, globeRadius);
+        deepProjection.setScreen(centerX, centerY, globeRadius);
+        constellationProjection.setScreen(centerX, centerY, globeRadius);
+    }
+
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        ephemerisCache.shutdown();
     }
 
     @Override
@@ -176,13 +411,17 @@ public class SkyView extends View implements GestureHandler.GestureListener {
 
         // Save canvas state and clip to globe
         canvas.save();
-        Path clipPath = new Path();
+        clipPath.rewind();
         clipPath.addCircle(centerX, centerY, globeRadius, Path.Direction.CW);
         canvas.clipPath(clipPath);
 
         // Calculate celestial positions
         updateCelestialBodies();
 
+        // Build this frame's sky-to-screen transform
+        projection.setOrientation(frameLst, Math.toRadians(latitude), viewAzimuth, viewAltitude, fovScale);
+        updateViewCenterConstellation();
+
         // Draw horizon grid
         drawHorizonGrid(canvas);
 
@@ -198,103 +437,139 @@ public class SkyView extends View implements GestureHandler.GestureListener {
         drawPlanets(canvas);
 
         // Draw Sun and Moon
-        if (sun != null)
-            drawCelestialBody(canvas, sun);
-        if (moon != null)
-            drawCelestialBody(canvas, moon);
+        drawCelestialBody(canvas, ephemeris.getSun());
+        drawCelestialBody(canvas, ephemeris.getMoon());
 
         // Restore canvas
         canvas.restore();
+
+        if (firstMeaningfulFrameMillis < 0) {
+            firstMeaningfulFrameMillis = (System.nanoTime() - loadStartNanos) / 1000000;
+            Log.i(TAG, "First meaningful frame after " + firstMeaningfulFrameMillis + " ms");
+        }
+    }
+
+    /**
+     * Look up the constellation at the view center; cheap enough for every
+     * frame.
+     */
+    private void updateViewCenterConstellation() {
+        ConstellationBoundaries boundaries = constellationBoundaries;
+        int index = -1;
+        if (boundaries != null) {
+            // Boundaries are looked up in J2000.0; carry the view center back
+            projection.getViewCap(viewCenterCap);
+            starCatalog.getEpochMatrix(viewCenterMatrix);
+            viewCenterJ2000.setRotated(viewCenterCap, viewCenterMatrix);
+            index = boundaries.find(viewCenterJ2000.getX(), viewCenterJ2000.getY(), viewCenterJ2000.getZ());
+        }
+
+        // Names only change when the view crosses a boundary
+        if (index != viewCenterConstellation) {
+            viewCenterConstellation = index;
+            viewCenterConstellationName = index < 0 ? null
+                    : constellationData.getName(boundaries.getAbbreviation(index));
+        }
+    }
+
+    /**
+     * Name of the constellation at the view center as of the last frame, or
+     * null without boundary data.
+     */
+    public String getViewCenterConstellation() {
+        return viewCenterConstellationName;
     }
 
     /**
      * Update positions of celestial bodies.
      */
     private void updateCelestialBodies() {
-        sun = AstronomyEngine.calculateSun(currentDate);
-        moon = AstronomyEngine.calculateMoon(currentDate);
-
-        planets.clear();
-        planets.add(AstronomyEngine.calculatePlanet("Mercury", currentDate));
-        planets.add(AstronomyEngine.calculatePlanet("Venus", currentDate));
-        planets.add(AstronomyEngine.calculatePlanet("Mars", currentDate));
-        planets.add(AstronomyEngine.calculatePlanet("Jupiter", currentDate));
-        planets.add(AstronomyEngine.calculatePlanet("Saturn", currentDate));
+        long timeMillis = clock.getTimeMillis();
+        epochTimeMillis = timeMillis;
+        frameLst = Coordinates.calculateLSTForDays(clock.getDaysSinceJ2000(), longitude);
+        ephemeris.update(timeMillis);
+        starCatalog.updateEpoch(timeMillis);
+        constellationData.updateEpoch(timeMillis);
     }
 
     /**
      * Draw horizon grid.
+     * Horizon and grid are fixed in horizontal coordinates, so their paths
+     * only change with the view and are rebuilt by updateGridPaths().
      */
     private void drawHorizonGrid(Canvas canvas) {
-        double lst = Coordinates.calculateLST(currentDate.getTime(), longitude);
-        double latRad = Math.toRadians(latitude);
+        updateGridPaths();
 
         // Always draw prominent horizon line at 0° altitude
-        Paint horizonPaint = new Paint();
-        horizonPaint.setColor(Color.parseColor("#00AAAA")); // Cyan
-        horizonPaint.setStyle(Paint.Style.STROKE);
-        horizonPaint.setStrokeWidth(3f); // Thick line
-        horizonPaint.setAntiAlias(true);
-        horizonPaint.setAlpha(180);
-        drawAltitudeCircleWithPaint(canvas, 0, lst, latRad, horizonPaint);
+        canvas.drawPath(horizonPath, horizonPaint);
 
         // Always draw cardinal labels (N, E, S, W)
-        String[] cardinalNames = { "N", "E", "S", "W" };
-        int[] cardinalAzimuths = { 0, 90, 180, 270 };
         for (int i = 0; i < 4; i++) {
-            drawCardinalLabel(canvas, cardinalAzimuths[i], cardinalNames[i]);
+            if (cardinalVisible[i]) {
+                // Offset text downward (below the horizon line)
+                canvas.drawText(CARDINAL_NAMES[i], cardinalPoints[i * 2], cardinalPoints[i * 2 + 1] + 40,
+                        cardinalPaint);
+            }
         }
 
         // Only draw additional grid if enabled
         if (gridVisible) {
-            // Draw altitude circles at 30° and 60°
-            for (int alt = 30; alt <= 60; alt += 30) {
-                drawAltitudeCircle(canvas, alt, lst, latRad);
-            }
-
-            // Draw azimuth lines (N, E, S, W)
-            for (int i = 0; i < 4; i++) {
-                drawAzimuthLine(canvas, cardinalAzimuths[i], lst, latRad);
-            }
+            canvas.drawPath(gridPath, gridPaint);
         }
     }
 
     /**
-     * Draw cardinal direction label below horizon.
+     * Rebuild horizon, grid and cardinal label geometry if the view changed.
      */
-    private void drawCardinalLabel(Canvas canvas, int azDeg, String label) {
-        // Project at horizon (0°) but draw text BELOW the point
-        PointF pt = project3D(Math.toRadians(azDeg), Math.toRadians(2));
-        if (pt != null) {
-            Paint cardinalPaint = new Paint();
-            cardinalPaint.setColor(Color.parseColor("#FFCC00"));
-            cardinalPaint.setTextSize(32f);
-            cardinalPaint.setTextAlign(Paint.Align.CENTER);
-            cardinalPaint.setAntiAlias(true);
-            cardinalPaint.setFakeBoldText(true);
-            cardinalPaint.setShadowLayer(3f, 1f, 1f, Color.BLACK);
-
-            // Offset text downward (below the horizon line)
-            canvas.drawText(label, pt.x, pt.y + 40, cardinalPaint);
+    private void updateGridPaths() {
+        boolean fast = projection.isFastMath();
+        if (gridPathsValid && gridViewAzimuth == viewAzimuth && gridViewAltitude == viewAltitude
+                && gridFovScale == fovScale && gridGlobeRadius == globeRadius && gridCenterX == centerX
+                && gridCenterY == centerY && gridFastProjection == fast)
+            return;
+
+        horizonPath.rewind();
+        appendAltitudeCircle(horizonPath, 0);
+
+        // Altitude circles at 30° and 60°, azimuth lines (N, E, S, W)
+        gridPath.rewind();
+        for (int alt = 30; alt <= 60; alt += 30) {
+            appendAltitudeCircle(gridPath, alt);
+        }
+        for (int i = 0; i < 4; i++) {
+            appendAzimuthLine(gridPath, CARDINAL_AZIMUTHS[i]);
         }
-    }
 
-    private void drawAltitudeCircle(Canvas canvas, int altDeg, double lst, double latRad) {
-        drawAltitudeCircleWithPaint(canvas, altDeg, lst, latRad, gridPaint);
+        // Cardinal labels: projected at 2° so they sit on the horizon, drawn below it
+        for (int i = 0; i < 4; i++) {
+            cardinalVisible[i] = projection.projectHorizontal(Math.toRadians(CARDINAL_AZIMUTHS[i]),
+                    Math.toRadians(2), screenPoint);
+            cardinalPoints[i * 2] = screenPoint[0];
+            cardinalPoints[i * 2 + 1] = screenPoint[1];
+        }
+
+        gridViewAzimuth = viewAzimuth;
+        gridViewAltitude = viewAltitude;
+        gridFovScale = fovScale;
+        gridGlobeRadius = globeRadius;
+        gridCenterX = centerX;
+        gridCenterY = centerY;
+        gridFastProjection = fast;
+        gridPathsValid = true;
     }
 
-    private void drawAltitudeCircleWithPaint(Canvas canvas, int altDeg, double lst, double latRad, Paint paint) {
-        Path path = new Path();
-        PointF lastPt = null;
+    private void appendAltitudeCircle(Path path, int altDeg) {
+        float lastX = 0, lastY = 0;
         boolean pathStarted = false;
 
         for (int az = 0; az <= 360; az += 3) { // Finer steps, include 360 for closure
-            PointF pt = project3D(Math.toRadians(az), Math.toRadians(altDeg));
-            if (pt != null) {
+            if (projection.projectHorizontal(Math.toRadians(az), Math.toRadians(altDeg), screenPoint)) {
+                float x = screenPoint[0];
+                float y = screenPoint[1];
+
                 // Check for large jumps (wrap-around artifact)
-                if (lastPt != null && pathStarted) {
-                    float jumpDist = (float) Math.sqrt(
-                            Math.pow(pt.x - lastPt.x, 2) + Math.pow(pt.y - lastPt.y, 2));
+                if (pathStarted) {
+                    float jumpDist = (float) Math.hypot(x - lastX, y - lastY);
                     if (jumpDist > globeRadius * 0.4f) {
                         // Large jump - break the path and start new segment
                         pathStarted = false;
@@ -302,142 +577,234 @@ public class SkyView extends View implements GestureHandler.GestureListener {
                 }
 
                 if (!pathStarted) {
-                    path.moveTo(pt.x, pt.y);
+                    path.moveTo(x, y);
                     pathStarted = true;
                 } else {
-                    path.lineTo(pt.x, pt.y);
+                    path.lineTo(x, y);
                 }
-                lastPt = pt;
+                lastX = x;
+                lastY = y;
             } else {
                 // Point not visible - break path
                 pathStarted = false;
             }
         }
-        canvas.drawPath(path, paint);
     }
 
-    private void drawAzimuthLine(Canvas canvas, int azDeg, double lst, double latRad) {
-        Path path = new Path();
-        PointF lastPt = null;
+    private void appendAzimuthLine(Path path, int azDeg) {
+        float lastX = 0, lastY = 0;
         boolean pathStarted = false;
 
         for (int alt = 0; alt <= 90; alt += 3) {
-            PointF pt = project3D(Math.toRadians(azDeg), Math.toRadians(alt));
-            if (pt != null) {
-                if (lastPt != null && pathStarted) {
-                    float jumpDist = (float) Math.sqrt(
-                            Math.pow(pt.x - lastPt.x, 2) + Math.pow(pt.y - lastPt.y, 2));
+            if (projection.projectHorizontal(Math.toRadians(azDeg), Math.toRadians(alt), screenPoint)) {
+                float x = screenPoint[0];
+                float y = screenPoint[1];
+
+                if (pathStarted) {
+                    float jumpDist = (float) Math.hypot(x - lastX, y - lastY);
                     if (jumpDist > globeRadius * 0.3f) {
                         pathStarted = false;
                     }
                 }
 
                 if (!pathStarted) {
-                    path.moveTo(pt.x, pt.y);
+                    path.moveTo(x, y);
                     pathStarted = true;
                 } else {
-                    path.lineTo(pt.x, pt.y);
+                    path.lineTo(x, y);
                 }
-                lastPt = pt;
+                lastX = x;
+                lastY = y;
             } else {
                 pathStarted = false;
             }
         }
-        canvas.drawPath(path, gridPaint);
     }
 
     /**
-     * Draw constellations.
+     * Draw constellations as great-circle arcs. Constellations whose bounding
+     * cap misses the view or lies below the horizon are skipped; the rest
+     * are split per segment by projected error into one reused path.
      */
     private void drawConstellations(Canvas canvas) {
-        double lst = Coordinates.calculateLST(currentDate.getTime(), longitude);
-        double latRad = Math.toRadians(latitude);
-
-        for (ConstellationData.Constellation constellation : constellationData.getConstellations()) {
-            // Draw lines
-            for (List<ConstellationData.Point> line : constellation.lines) {
-                Path path = new Path();
-                boolean first = true;
-
-                for (ConstellationData.Point point : line) {
-                    double ra = Math.toRadians(point.ra);
-                    double dec = Math.toRadians(point.dec);
-                    Coordinates.HorizontalCoords hor = Coordinates.equatorialToHorizontal(ra, dec, lst, latRad);
-
-                    PointF pt = project3D(hor.azimuth, hor.altitude);
-                    if (pt != null) {
-                        if (first) {
-                            path.moveTo(pt.x, pt.y);
-                            first = false;
-                        } else {
-                            path.lineTo(pt.x, pt.y);
-                        }
-                    } else {
-                        first = true;
-                    }
+        ConstellationData data = constellationData;
+        float[] vertices = data.getVertices(constellationMatrix);
+        int[] firstLines = data.getFirstLines();
+        int[] labelVertices = data.getLabelVertices();
+        SkyCellIndex.Cap[] bounds = data.getBounds();
+        float[] points = data.getJ2000Vertices();
+        int[] lineVertices = data.getLineVertices();
+        int[] lineStarts = data.getLineStarts();
+
+        // Line vertices and bounds are in J2000.0: project through precession,
+        // which also puts the culling caps in J2000.0
+        constellationProjection.setOrientation(frameLst, Math.toRadians(latitude), viewAzimuth, viewAltitude,
+                fovScale);
+        constellationProjection.applyFrameRotation(constellationMatrix);
+        constellationProjection.getViewCap(constellationCaps[0]);
+        constellationProjection.getHorizonCap(constellationCaps[1]);
+
+        int drawn = 0;
+        constellationPath.rewind();
+        for (int c = 0; c < bounds.length; c++) {
+            if (!bounds[c].intersects(constellationCaps[0]) || !bounds[c].intersects(constellationCaps[1]))
+                continue;
+            drawn++;
+
+            for (int l = firstLines[c]; l < firstLines[c + 1]; l++) {
+                int a = lineVertices[lineStarts[l]];
+                boolean penDown = constellationProjection.project(points[a * 3], points[a * 3 + 1],
+                        points[a * 3 + 2], screenPoint);
+                if (penDown)
+                    constellationPath.moveTo(screenPoint[0], screenPoint[1]);
+                for (int k = lineStarts[l] + 1; k < lineStarts[l + 1]; k++) {
+                    penDown = constellationProjection.projectArc(points, lineVertices[k - 1], lineVertices[k],
+                            ARC_TOLERANCE_PIXELS, penDown, constellationSink);
                 }
-                canvas.drawPath(path, linePaint);
             }
 
-            // Draw names if LINES_NAMES mode is enabled
-            if (constellationMode == ConstellationMode.LINES_NAMES && constellation.centroid != null) {
-                double ra = Math.toRadians(constellation.centroid.ra);
-                double dec = Math.toRadians(constellation.centroid.dec);
-                Coordinates.HorizontalCoords hor = Coordinates.equatorialToHorizontal(ra, dec, lst, latRad);
-
-                PointF pt = project3D(hor.azimuth, hor.altitude);
-                if (pt != null) {
-                    canvas.drawText(constellation.name, pt.x, pt.y, textPaint);
-                }
+            // Draw names if LINES_NAMES mode is enabled; vertices are precessed
+            int v = labelVertices[c];
+            if (constellationMode == ConstellationMode.LINES_NAMES
+                    && projection.project(vertices[v * 3], vertices[v * 3 + 1], vertices[v * 3 + 2], screenPoint)) {
+                canvas.drawText(data.getConstellationName(c), screenPoint[0], screenPoint[1], textPaint);
             }
         }
+        canvas.drawPath(constellationPath, linePaint);
+
+        constellationsDrawn = drawn;
+        constellationsCulled = bounds.length - drawn;
+    }
+
+    /**
+     * Constellations drawn in the last frame with constellations enabled.
+     */
+    public int getConstellationsDrawn() {
+        return constellationsDrawn;
+    }
+
+    /**
+     * Constellations skipped by bounding-cap culling in the last frame with
+     * constellations enabled.
+     */
+    public int getConstellationsCulled() {
+        return constellationsCulled;
     }
 
     /**
      * Draw stars.
      */
     private void drawStars(Canvas canvas) {
-        double lst = Coordinates.calculateLST(currentDate.getTime(), longitude);
-        double latRad = Math.toRadians(latitude);
+        // One catalog for the whole pass; the loader may publish a larger one
+        StarCatalog catalog = starCatalog;
+
+        // Only visit stars in sky cells that can reach the globe above the horizon
+        projection.getViewCap(starCaps[0]);
+        projection.getHorizonCap(starCaps[1]);
+        float[] vectors = catalog.queryVisible(starCaps, visibleStarRanges);
+        float[] magnitudes = catalog.getMagnitudes();
+        int[] order = catalog.getCellOrder();
+        int[] cellStarts = catalog.getCellStarts();
+        int[] colors = catalog.getColors();
+        int count = Math.min(catalog.getStarCount(), Math.min(magnitudes.length, vectors.length / 3));
+        double limit = getLimitingMagnitude();
+
+        for (int r = 0; r < visibleStarRanges.size(); r++) {
+            for (int cell = visibleStarRanges.start(r); cell < visibleStarRanges.end(r); cell++) {
+                // Cells list their brightest stars first: stop at the first too faint
+                for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++) {
+                    int i = order[k];
+                    if (i >= count || magnitudes[i] > limit)
+                        break;
+                    drawStar(canvas, catalog, i, magnitudes[i], colors[i],
+                            vectors[i * 3], vectors[i * 3 + 1], vectors[i * 3 + 2]);
+                }
+            }
+        }
 
-        for (CelestialBody star : starCatalog.getStars()) {
-            Coordinates.HorizontalCoords hor = Coordinates.equatorialToHorizontal(
-                    star.getRa(), star.getDec(), lst, latRad);
-
-            if (hor.altitude > 0) { // Only visible stars
-                PointF pt = project3D(hor.azimuth, hor.altitude);
-                if (pt != null) {
-                    starPaint.setColor(star.getColor());
-                    float radius = star.getRenderRadius();
-                    canvas.drawCircle(pt.x, pt.y, radius, starPaint);
-
-                    // Draw star names if enabled
-                    if (starNameMode != StarNameMode.OFF && star.getName() != null && !star.getName().isEmpty()) {
-                        boolean shouldDrawName = false;
-                        if (starNameMode == StarNameMode.BRIGHT && star.getMagnitude() < 1.5) {
-                            shouldDrawName = true;
-                        } else if (starNameMode == StarNameMode.ALL && star.getMagnitude() < 3.0) {
-                            shouldDrawName = true;
-                        }
-
-                        if (shouldDrawName) {
-                            Paint namePaint = new Paint(textPaint);
-                            namePaint.setTextSize(20f);
-                            namePaint.setColor(Color.parseColor("#8899AA"));
-                            canvas.drawText(star.getName(), pt.x, pt.y - radius - 8, namePaint);
-                        }
-                    }
+        drawDeepStars(canvas, catalog, limit);
+    }
+
+    /**
+     * Draw deep catalog stars from resident tiles; missing tiles are queued
+     * and appear on a later frame.
+     */
+    private void drawDeepStars(Canvas canvas, StarCatalog catalog, double limit) {
+        if (deepCatalog == null)
+            return;
+
+        // Same view as projection, composed with precession so J2000.0 tile
+        // vectors project directly; caps come out in J2000.0 as well
+        catalog.getEpochMatrix(epochMatrix);
+        deepProjection.setOrientation(frameLst, Math.toRadians(latitude), viewAzimuth, viewAltitude, fovScale);
+        deepProjection.applyFrameRotation(epochMatrix);
+        deepProjection.getViewCap(deepCaps[0]);
+        deepProjection.getHorizonCap(deepCaps[1]);
+        deepCatalog.update(deepCaps, limit, visibleTiles);
+
+        for (int t = 0; t < visibleTiles.size(); t++) {
+            StarTileCache.Tile tile = visibleTiles.get(t);
+            float[] v = tile.unitVectors;
+            for (int k = 0; k < tile.count; k++) {
+                float magnitude = tile.magnitudes[k];
+                if (magnitude > limit)
+                    break; // Brightest first
+                float x = v[k * 3], y = v[k * 3 + 1], z = v[k * 3 + 2];
+                if (deepProjection.sinAltitude(x, y, z) <= 0) // Only visible stars, as in drawStar()
+                    continue;
+                if (deepProjection.project(x, y, z, screenPoint)) {
+                    starPaint.setColor(tile.colors[k]);
+                    canvas.drawCircle(screenPoint[0], screenPoint[1],
+                            CelestialBody.getStarRenderRadius(magnitude), starPaint);
                 }
             }
         }
     }
 
+    /**
+     * Faintest star magnitude drawn at the current zoom. Each halving of
+     * fovScale adds about 1.5 magnitudes, keeping the on-screen star density
+     * roughly constant.
+     */
+    public double getLimitingMagnitude() {
+        return LIMITING_MAGNITUDE - 5 * Math.log10(fovScale);
+    }
+
+    private void drawStar(Canvas canvas, StarCatalog catalog, int index, float magnitude, int color,
+            float x, float y, float z) {
+        if (projection.sinAltitude(x, y, z) <= 0) // Only visible stars
+            return;
+        if (!projection.project(x, y, z, screenPoint))
+            return;
+
+        float sx = screenPoint[0];
+        float sy = screenPoint[1];
+        starPaint.setColor(color);
+        float radius = CelestialBody.getStarRenderRadius(magnitude);
+        canvas.drawCircle(sx, sy, radius, starPaint);
+
+        // Draw star names if enabled
+        if (starNameMode != StarNameMode.OFF) {
+            boolean shouldDrawName = false;
+            if (starNameMode == StarNameMode.BRIGHT && magnitude < 1.5) {
+                shouldDrawName = true;
+            } else if (starNameMode == StarNameMode.ALL && magnitude < 3.0) {
+                shouldDrawName = true;
+            }
+
+            String name = shouldDrawName ? catalog.getName(index) : "";
+            if (!name.isEmpty()) {
+                canvas.drawText(name, sx, sy - radius - 8, starNamePaint);
+            }
+        }
+    }
+
     /**
      * Draw planets.
      */
     private void drawPlanets(Canvas canvas) {
-        for (CelestialBody planet : planets) {
-            drawCelestialBody(canvas, planet);
+        for (int i = 0; i < ephemeris.getPlanetCount(); i++) {
+            drawCelestialBody(canvas, ephemeris.getPlanet(i));
         }
     }
 
@@ -445,7 +812,7 @@ public class SkyView extends View implements GestureHandler.GestureListener {
      * Draw a celestial body (planet, sun, moon).
      */
     private void drawCelestialBody(Canvas canvas, CelestialBody body) {
-        double lst = Coordinates.calculateLST(currentDate.getTime(), longitude);
+        double lst = frameLst;
         double latRad = Math.toRadians(latitude);
 
         Coordinates.HorizontalCoords hor = Coordinates.equatorialToHorizontal(
@@ -459,9 +826,7 @@ public class SkyView extends View implements GestureHandler.GestureListener {
                 canvas.drawCircle(pt.x, pt.y, radius, planetPaint);
 
                 // Draw name
-                Paint namePaint = new Paint(textPaint);
-                namePaint.setTextSize(24f);
-                canvas.drawText(body.getName(), pt.x, pt.y - radius - 10, namePaint);
+                canvas.drawText(body.getName(), pt.x, pt.y - radius - 10, bodyNamePaint);
             }
         }
     }
@@ -469,55 +834,12 @@ public class SkyView extends View implements GestureHandler.GestureListener {
     /**
      * Project 3D celestial sphere to 2D globe view.
      * Stereographic projection centered on view direction.
+     * Uses the fast-math path when setFastProjection(true) is set.
      */
     private PointF project3D(double az, double alt) {
-        if (alt < -0.01) // Small tolerance for horizon
-            return null;
-
-        // Normalize azimuth difference to [-PI, PI] to handle wrap-around
-        double dAz = az - viewAzimuth;
-        while (dAz > Math.PI)
-            dAz -= 2 * Math.PI;
-        while (dAz < -Math.PI)
-            dAz += 2 * Math.PI;
-
-        // Clamp view altitude to avoid singularity at poles
-        double clampedViewAlt = Math.max(-Math.PI / 2 + 0.02, Math.min(Math.PI / 2 - 0.02, viewAltitude));
-
-        // Convert to 3D rotated coordinates (point relative to view center)
-        double cosAlt = Math.cos(alt);
-        double sinAlt = Math.sin(alt);
-        double cosViewAlt = Math.cos(clampedViewAlt);
-        double sinViewAlt = Math.sin(clampedViewAlt);
-        double cosDaz = Math.cos(dAz);
-        double sinDaz = Math.sin(dAz);
-
-        double x1 = cosAlt * sinDaz;
-        double y1 = sinAlt * cosViewAlt - cosAlt * sinViewAlt * cosDaz;
-        double z1 = sinAlt * sinViewAlt + cosAlt * cosViewAlt * cosDaz;
-
-        // Check if behind viewing hemisphere (with tolerance)
-        if (z1 < 0.02)
-            return null;
-
-        // Stereographic projection with FOV scaling
-        double denom = 1.0 + z1;
-        if (denom < 0.1)
-            denom = 0.1; // Prevent division issues
-
-        double projX = x1 / (denom * fovScale);
-        double projY = y1 / (denom * fovScale);
-
-        // Check if within globe bounds
-        double r = Math.sqrt(projX * projX + projY * projY);
-        if (r > 0.95) // Clip at 95% of globe
+        if (!projection.projectHorizontal(az, alt, screenPoint))
             return null;
-
-        // Convert to screen coordinates
-        float screenX = centerX + (float) (projX * globeRadius);
-        float screenY = centerY - (float) (projY * globeRadius);
-
-        return new PointF(screenX, screenY);
+        return new PointF(screenPoint[0], screenPoint[1]);
     }
 
     // Animation loop
@@ -532,14 +854,7 @@ public class SkyView extends View implements GestureHandler.GestureListener {
     };
 
     private void updateTime() {
-        long now = System.currentTimeMillis();
-        long dt = now - lastFrameTime;
-        lastFrameTime = now;
-
-        if (!paused) {
-            long timeIncrement = (long) (dt * timeSpeed);
-            currentDate = new Date(currentDate.getTime() + timeIncrement);
-        }
+        clock.tick();
     }
 
     // Gesture handlers - track outside globe double taps
@@ -616,21 +931,22 @@ public class SkyView extends View implements GestureHandler.GestureListener {
 
     @Override
     public void onThreeFingerSwipeUp() {
-        timeSpeed = Math.min(timeSpeed * 10, 10000);
+        clock.setSpeed(Math.min(clock.getSpeed() * 10, 10000));
         invalidate();
     }
 
     @Override
     public void onThreeFingerSwipeDown() {
-        timeSpeed = Math.max(timeSpeed / 10, -10000);
+        double timeSpeed = Math.max(clock.getSpeed() / 10, -10000);
         if (timeSpeed > -1 && timeSpeed < 1)
             timeSpeed = timeSpeed > 0 ? 1 : -1;
+        clock.setSpeed(timeSpeed);
         invalidate();
     }
 
     @Override
     public void onTwoFingerDoubleTap() {
-        paused = !paused;
+        clock.setPaused(!clock.isPaused());
         invalidate();
     }
 
@@ -653,15 +969,28 @@ public class SkyView extends View implements GestureHandler.GestureListener {
     }
 
     public void setTimeSpeed(double speed) {
-        this.timeSpeed = speed;
+        clock.setSpeed(speed);
     }
 
     public void setPaused(boolean paused) {
-        this.paused = paused;
+        clock.setPaused(paused);
+    }
+
+    /**
+     * Use single-precision table trig for grid, labels, constellations and
+     * bodies. See SkyProjection for the error bound (well under a pixel).
+     */
+    public void setFastProjection(boolean fast) {
+        projection.setFastMath(fast);
+        invalidate();
+    }
+
+    public boolean isFastProjection() {
+        return projection.isFastMath();
     }
 
     public void resetTime() {
-        currentDate = new Date();
+        clock.resetToNow();
         invalidate();
     }
 
@@ -712,8 +1041,18 @@ public class SkyView extends View implements GestureHandler.GestureListener {
         return gridVisible;
     }
 
+    /**
+     * Current simulated time as a new Date (for UI formatting; allocates).
+     */
     public Date getCurrentDate() {
-        return currentDate;
+        return new Date(clock.getTimeMillis());
+    }
+
+    /**
+     * Current simulated time in milliseconds since epoch.
+     */
+    public long getTimeMillis() {
+        return clock.getTimeMillis();
     }
 
     public String getLocationName() {
@@ -729,11 +1068,11 @@ public class SkyView extends View implements GestureHandler.GestureListener {
     }
 
     public double getTimeSpeed() {
-        return timeSpeed;
+        return clock.getSpeed();
     }
 
     public boolean isPaused() {
-        return paused;
+        return clock.isPaused();
     }
 
     public double getLongitude() {
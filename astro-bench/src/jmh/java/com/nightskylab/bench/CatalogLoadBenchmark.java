@@ -0,0 +1,70 @@
+package com.nightskylab.bench;
+
+import com.nightskylab.data.StarCatalog;
+import com.nightskylab.data.StarCatalogFormat;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Star catalog load time: Gson JSON against the binary column format,
+ * from in-memory streams so only parsing is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CatalogLoadBenchmark {
+    // 152 is the bundled catalog size
+    @Param({ "152", "10000", "100000" })
+    int stars;
+
+    private byte[] json;
+    private byte[] binary;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < stars; i++) {
+            if (i > 0)
+                sb.append(',');
+            sb.append(String.format(Locale.ROOT,
+                    "{\"name\":\"Star %d\",\"ra\":%.5f,\"dec\":%.5f,\"mag\":%.2f,\"color\":\"#%06X\"}",
+                    i, random.nextDouble() * 360, Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1)),
+                    random.nextDouble() * 8 - 1.5, random.nextInt(0x1000000)));
+        }
+        json = sb.append(']').toString().getBytes(StandardCharsets.UTF_8);
+
+        StarCatalog catalog = new StarCatalog();
+        catalog.load(new ByteArrayInputStream(json));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StarCatalogFormat.write(catalog.getStars(), out);
+        binary = out.toByteArray();
+    }
+
+    @Benchmark
+    public StarCatalog loadJson() {
+        StarCatalog catalog = new StarCatalog();
+        catalog.load(new ByteArrayInputStream(json));
+        return catalog;
+    }
+
+    @Benchmark
+    public StarCatalog loadBinary() {
+        StarCatalog catalog = new StarCatalog();
+        catalog.loadBinary(new ByteArrayInputStream(binary));
+        return catalog;
+    }
+}
@@ -0,0 +1,63 @@
+package com.nightskylab.bench;
+
+import com.nightskylab.astronomy.Coordinates;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-star equatorial to horizontal transform: the original allocating
+ * per-object path against the batch path over primitive arrays.
+ * Run with the gc profiler (the default in build.gradle) to compare
+ * allocation rates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CoordinatesBenchmark {
+    private static final double LATITUDE = Math.toRadians(38.7);
+    private static final double LONGITUDE = -9.1;
+
+    @Param({ "500", "10000", "100000", "1000000" })
+    int stars;
+
+    @Param({ "1", "1000", "100000" })
+    long warp;
+
+    private SyntheticCatalog catalog;
+    private FrameClock clock;
+    private double[] altOut;
+    private double[] azOut;
+
+    @Setup
+    public void setUp() {
+        catalog = new SyntheticCatalog(stars);
+        clock = new FrameClock(warp);
+        altOut = new double[stars];
+        azOut = new double[stars];
+    }
+
+    @Benchmark
+    public void perObject(Blackhole bh) {
+        double lst = Coordinates.calculateLST(clock.next(), LONGITUDE);
+        double[] ra = catalog.ra;
+        double[] dec = catalog.dec;
+        for (int i = 0; i < stars; i++) {
+            bh.consume(Coordinates.equatorialToHorizontal(ra[i], dec[i], lst, LATITUDE));
+        }
+    }
+
+    @Benchmark
+    public double[] batch() {
+        double lst = Coordinates.calculateLST(clock.next(), LONGITUDE);
+        Coordinates.equatorialToHorizontal(catalog.ra, catalog.dec, stars, lst, LATITUDE, altOut, azOut);
+        return altOut;
+    }
+}
@@ -0,0 +1,88 @@
+package com.nightskylab.bench;
+
+import com.nightskylab.astronomy.AstronomyEngine;
+import com.nightskylab.astronomy.ChebyshevEphemerisCache;
+import com.nightskylab.astronomy.Coordinates;
+import com.nightskylab.astronomy.EphemerisSnapshot;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Per-frame ephemeris costs at several time-warp rates.
+ * A 60 fps frame is 16 ms; the snapshot benchmarks cover everything the
+ * view computes for the Sun, Moon and planets each frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EphemerisBenchmark {
+    @Param({ "1", "1000", "100000" })
+    long warp;
+
+    private FrameClock clock;
+    private EphemerisSnapshot direct;
+    private ChebyshevEphemerisCache cache;
+    private EphemerisSnapshot cached;
+
+    @Setup
+    public void setUp() {
+        clock = new FrameClock(warp);
+        direct = new EphemerisSnapshot();
+        cache = new ChebyshevEphemerisCache(256);
+        cached = new EphemerisSnapshot(cache);
+    }
+
+    @TearDown
+    public void tearDown() {
+        cache.shutdown();
+    }
+
+    @Benchmark
+    public double lst() {
+        return Coordinates.calculateLST(clock.next(), -9.1);
+    }
+
+    @Benchmark
+    public void moon(Blackhole bh) {
+        bh.consume(AstronomyEngine.calculateMoon(new Date(clock.next())));
+    }
+
+    /**
+     * All planets through the allocating API (cold Kepler start per call).
+     */
+    @Benchmark
+    public void planetsCold(Blackhole bh) {
+        Date date = new Date(clock.next());
+        for (String name : AstronomyEngine.PLANET_NAMES) {
+            bh.consume(AstronomyEngine.calculatePlanet(name, date));
+        }
+    }
+
+    /**
+     * Sun, Moon and all planets computed directly with warm-started Kepler.
+     */
+    @Benchmark
+    public EphemerisSnapshot snapshotDirect() {
+        direct.update(clock.next());
+        return direct;
+    }
+
+    /**
+     * Sun, Moon and all planets from the Chebyshev segment cache.
+     */
+    @Benchmark
+    public EphemerisSnapshot snapshotCached() {
+        cached.update(clock.next());
+        return cached;
+    }
+}
@@ -0,0 +1,22 @@
+package com.nightskylab.bench;
+
+/**
+ * Simulated time advancing one 60 fps frame per step at a time-warp rate.
+ */
+final class FrameClock {
+    // 2024-03-20 00:00 UTC
+    static final long START_MILLIS = 1710892800000L;
+    private static final long FRAME_MILLIS = 16;
+
+    private final long stepMillis;
+    private long timeMillis = START_MILLIS;
+
+    FrameClock(long warp) {
+        stepMillis = FRAME_MILLIS * warp;
+    }
+
+    long next() {
+        timeMillis += stepMillis;
+        return timeMillis;
+    }
+}
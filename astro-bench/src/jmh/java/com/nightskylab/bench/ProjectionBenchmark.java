@@ -0,0 +1,129 @@
+package com.nightskylab.bench;
+
+import com.nightskylab.astronomy.Coordinates;
+import com.nightskylab.astronomy.SkyCellIndex;
+import com.nightskylab.astronomy.SkyProjection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Globe projection of a whole catalog per frame at several zoom levels:
+ * the horizontal trig path used by SkyView.project3D (reference and fast
+ * math) against the per-frame matrix over unit vectors, with and without
+ * sky-cell culling and the zoom-dependent limiting magnitude.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ProjectionBenchmark {
+    private static final double LATITUDE = Math.toRadians(38.7);
+    private static final double LONGITUDE = -9.1;
+
+    @Param({ "10000", "100000" })
+    int stars;
+
+    // Field of view scale: SkyView clamps to 0.3 (zoomed in) .. 2.5
+    @Param({ "0.3", "1.0", "2.5" })
+    double fovScale;
+
+    private SyntheticCatalog catalog;
+    private SkyProjection projection;
+    private double[] alt;
+    private double[] az;
+    private final float[] screenPoint = new float[2];
+
+    private SkyCellIndex cellIndex;
+    private final SkyCellIndex.Cap[] caps = { new SkyCellIndex.Cap(), new SkyCellIndex.Cap() };
+    private final SkyCellIndex.Ranges ranges = new SkyCellIndex.Ranges();
+
+    @Setup
+    public void setUp() {
+        catalog = new SyntheticCatalog(stars);
+        projection = new SkyProjection();
+        projection.setScreen(540f, 1170f, 518f);
+
+        double lst = Coordinates.calculateLST(FrameClock.START_MILLIS, LONGITUDE);
+        projection.setOrientation(lst, LATITUDE, Math.PI, Math.PI / 6, fovScale);
+
+        alt = new double[stars];
+        az = new double[stars];
+        Coordinates.equatorialToHorizontal(catalog.ra, catalog.dec, stars, lst, LATITUDE, alt, az);
+
+        cellIndex = new SkyCellIndex(catalog.unitVectors);
+    }
+
+    @Benchmark
+    public float horizontalReference() {
+        projection.setFastMath(false);
+        float sum = 0;
+        for (int i = 0; i < stars; i++) {
+            if (projection.projectHorizontal(az[i], alt[i], screenPoint))
+                sum += screenPoint[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float horizontalFast() {
+        projection.setFastMath(true);
+        float sum = 0;
+        for (int i = 0; i < stars; i++) {
+            if (projection.projectHorizontal(az[i], alt[i], screenPoint))
+                sum += screenPoint[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float unitVectors() {
+        float[] v = catalog.unitVectors;
+        float sum = 0;
+        for (int i = 0; i < stars * 3; i += 3) {
+            if (projection.project(v[i], v[i + 1], v[i + 2], screenPoint))
+                sum += screenPoint[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public float cellIndex() {
+        return projectVisible(Double.MAX_VALUE);
+    }
+
+    @Benchmark
+    public float cellIndexLimited() {
+        // As SkyView.getLimitingMagnitude()
+        return projectVisible(6.5 - 5 * Math.log10(fovScale));
+    }
+
+    private float projectVisible(double limit) {
+        projection.getViewCap(caps[0]);
+        projection.getHorizonCap(caps[1]);
+        cellIndex.query(caps, ranges);
+
+        float[] v = catalog.unitVectors;
+        float[] magnitudes = catalog.magnitudes;
+        int[] order = cellIndex.getOrder();
+        int[] cellStarts = cellIndex.getCellStarts();
+        float sum = 0;
+        for (int r = 0; r < ranges.size(); r++) {
+            for (int cell = ranges.start(r); cell < ranges.end(r); cell++) {
+                for (int k = cellStarts[cell]; k < cellStarts[cell + 1]; k++) {
+                    int i = order[k];
+                    if (magnitudes[i] > limit)
+                        break;
+                    if (projection.project(v[i * 3], v[i * 3 + 1], v[i * 3 + 2], screenPoint))
+                        sum += screenPoint[0];
+                }
+            }
+        }
+        return sum;
+    }
+}
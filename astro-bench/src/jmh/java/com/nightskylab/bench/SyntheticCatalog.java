@@ -0,0 +1,32 @@
+package com.nightskylab.bench;
+
+import com.nightskylab.astronomy.Coordinates;
+import java.util.Random;
+
+/**
+ * Stars distributed uniformly over the sphere, reproducible across runs.
+ * Magnitudes are ascending with a sky-like count distribution: the number of
+ * stars brighter than m grows by 10^0.5 per magnitude, with about 9000
+ * stars down to 6.5.
+ */
+final class SyntheticCatalog {
+    final double[] ra;
+    final double[] dec;
+    final float[] unitVectors;
+    final float[] magnitudes;
+
+    SyntheticCatalog(int count) {
+        Random random = new Random(42);
+        ra = new double[count];
+        dec = new double[count];
+        unitVectors = new float[count * 3];
+        magnitudes = new float[count];
+        double faintest = 6.5 + 2 * Math.log10(count / 9000.0);
+        for (int i = 0; i < count; i++) {
+            ra[i] = random.nextDouble() * 2 * Math.PI;
+            dec[i] = Math.asin(random.nextDouble() * 2 - 1);
+            Coordinates.equatorialToCartesian(ra[i], dec[i], unitVectors, i * 3);
+            magnitudes[i] = (float) (faintest + 2 * Math.log10((i + 1) / (double) count));
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.nightskylab.astronomy;
+
+/**
+ * Packed ARGB color ints, laid out like android.graphics.Color so values can
+ * be handed straight to a Paint.
+ */
+public final class ArgbColor {
+    public static final int WHITE = 0xFFFFFFFF;
+
+    private ArgbColor() {
+    }
+
+    /**
+     * Opaque color from red, green and blue components (0-255).
+     */
+    public static int rgb(int red, int green, int blue) {
+        return 0xFF000000 | (red << 16) | (green << 8) | blue;
+    }
+
+    public static int alpha(int color) {
+        return color >>> 24;
+    }
+
+    public static int red(int color) {
+        return (color >> 16) & 0xFF;
+    }
+
+    public static int green(int color) {
+        return (color >> 8) & 0xFF;
+    }
+
+    public static int blue(int color) {
+        return color & 0xFF;
+    }
+
+    /**
+     * Parse a "#RRGGBB" or "#AARRGGBB" color string.
+     *
+     * @throws IllegalArgumentException if the string is not a valid color
+     */
+    public static int parse(String colorString) {
+        if (colorString == null || colorString.isEmpty() || colorString.charAt(0) != '#')
+            throw new IllegalArgumentException("Unknown color: " + colorString);
+
+        long value;
+        try {
+            value = Long.parseLong(colorString.substring(1), 16);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Unknown color: " + colorString);
+        }
+
+        if (colorString.length() == 7)
+            return (int) (value | 0xFF000000L);
+        if (colorString.length() == 9)
+            return (int) value;
+        throw new IllegalArgumentException("Unknown color: " + colorString);
+    }
+}
@@ -0,0 +1,305 @@
+package com.nightskylab.astronomy;
+
+import java.util.Date;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Simplified astronomy engine for calculating celestial body positions.
+ * Based on low-precision formulas suitable for planetarium visualization.
+ */
+public class AstronomyEngine {
+    private static final double RAD = Math.PI / 180.0;
+    private static final double DEG = 180.0 / Math.PI;
+
+    // Obliquity of ecliptic (shared by all bodies)
+    static final double OBLIQUITY = 23.439 * RAD;
+    static final double SIN_OBLIQUITY = Math.sin(OBLIQUITY);
+    static final double COS_OBLIQUITY = Math.cos(OBLIQUITY);
+
+    /**
+     * Planets supported by calculatePlanet, in snapshot order.
+     */
+    public static final String[] PLANET_NAMES = { "Mercury", "Venus", "Mars", "Jupiter", "Saturn" };
+
+    // Display properties, indexed as PLANET_NAMES
+    private static final double[] PLANET_MAG = { -0.4, -4.4, -2.0, -2.7, 0.0 };
+    private static final int[] PLANET_COLOR = {
+            ArgbColor.rgb(180, 180, 180),
+            ArgbColor.rgb(255, 230, 200),
+            ArgbColor.rgb(255, 100, 50),
+            ArgbColor.rgb(255, 200, 150),
+            ArgbColor.rgb(255, 220, 150)
+    };
+
+    // Body ids besides planet indices (planet index -1 is a generic planet)
+    static final int BODY_SUN = -3;
+    static final int BODY_MOON = -2;
+
+    // Series shorter than this run on the calling thread
+    static final int SERIES_SPLIT_THRESHOLD = 8192;
+
+    /**
+     * Days since J2000.0 for a time in milliseconds since epoch.
+     */
+    public static double daysSinceJ2000(long timeMillis) {
+        double jd = (timeMillis / 86400000.0) + 2440587.5; // Julian date
+        return jd - 2451545.0;
+    }
+
+    /**
+     * Calculate Sun position.
+     * Uses simplified formulas accurate to ~0.01 degrees.
+     */
+    public static CelestialBody calculateSun(Date date) {
+        CelestialBody sun = newSun();
+        computeSun(daysSinceJ2000(date.getTime()), sun);
+        return sun;
+    }
+
+    /**
+     * Calculate Moon position and phase.
+     * Simplified formula accurate to ~0.5 degrees.
+     */
+    public static CelestialBody calculateMoon(Date date) {
+        double d = daysSinceJ2000(date.getTime());
+
+        CelestialBody moon = newMoon();
+        computeMoon(d, moon);
+
+        // Phase needs the Sun at the same instant
+        CelestialBody sun = newSun();
+        computeSun(d, sun);
+        computeMoonPhase(moon, sun);
+
+        return moon;
+    }
+
+    /**
+     * Calculate planet position from Keplerian orbital elements.
+     * Accurate to about an arcminute for the inner planets.
+     */
+    public static CelestialBody calculatePlanet(String name, Date date) {
+        CelestialBody planet = newPlanet(name);
+        computePlanet(planetIndex(name), daysSinceJ2000(date.getTime()),
+                new KeplerianOrbits.Workspace(false), planet);
+        return planet;
+    }
+
+    /**
+     * Calculate positions of one body for many instants.
+     * Fills primitive arrays without allocating per instant, and splits large
+     * series across cores with fork/join. Each entry is bit-identical to the
+     * matching calculateSun/calculateMoon/calculatePlanet call.
+     *
+     * @param name        "Sun", "Moon" or a name in PLANET_NAMES
+     * @param timesMillis Instants in milliseconds since epoch
+     * @param raOut       Output right ascensions in radians
+     * @param decOut      Output declinations in radians
+     */
+    public static void calculateSeries(String name, long[] timesMillis, double[] raOut, double[] decOut) {
+        SeriesTask task = new SeriesTask(bodyId(name), timesMillis, raOut, decOut, 0, timesMillis.length);
+        if (timesMillis.length <= SERIES_SPLIT_THRESHOLD) {
+            task.compute();
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+    }
+
+    /**
+     * Fork/join task computing one slice of a position series.
+     */
+    private static class SeriesTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int body;
+        private final long[] times;
+        private final double[] raOut, decOut;
+        private final int from, to;
+
+        SeriesTask(int body, long[] times, double[] raOut, double[] decOut, int from, int to) {
+            this.body = body;
+            this.times = times;
+            this.raOut = raOut;
+            this.decOut = decOut;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > SERIES_SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new SeriesTask(body, times, raOut, decOut, from, mid),
+                        new SeriesTask(body, times, raOut, decOut, mid, to));
+                return;
+            }
+
+            // Cold-start orbits so every entry matches the scalar path exactly
+            CelestialBody scratch = new CelestialBody("", CelestialBody.BodyType.PLANET);
+            KeplerianOrbits.Workspace orbits = new KeplerianOrbits.Workspace(false);
+
+            for (int i = from; i < to; i++) {
+                computeBody(body, daysSinceJ2000(times[i]), orbits, scratch);
+                raOut[i] = scratch.getRa();
+                decOut[i] = scratch.getDec();
+            }
+        }
+    }
+
+    /**
+     * Body id for a name: BODY_SUN, BODY_MOON or a planet index.
+     */
+    static int bodyId(String name) {
+        if ("Sun".equals(name))
+            return BODY_SUN;
+        if ("Moon".equals(name))
+            return BODY_MOON;
+        return planetIndex(name);
+    }
+
+    /**
+     * Position of any body by id for days since J2000.0 (Moon phase not set).
+     */
+    static void computeBody(int body, double d, KeplerianOrbits.Workspace workspace, CelestialBody out) {
+        if (body == BODY_SUN) {
+            computeSun(d, out);
+        } else if (body == BODY_MOON) {
+            computeMoon(d, out);
+        } else {
+            computePlanet(body, d, workspace, out);
+        }
+    }
+
+    /**
+     * Index of a planet in PLANET_NAMES, or -1 if unknown.
+     */
+    static int planetIndex(String name) {
+        for (int i = 0; i < PLANET_NAMES.length; i++) {
+            if (PLANET_NAMES[i].equals(name))
+                return i;
+        }
+        return -1;
+    }
+
+    static CelestialBody newSun() {
+        CelestialBody sun = new CelestialBody("Sun", CelestialBody.BodyType.SUN);
+        sun.setMagnitude(-26.7);
+        sun.setColor(ArgbColor.rgb(255, 255, 0));
+        return sun;
+    }
+
+    static CelestialBody newMoon() {
+        CelestialBody moon = new CelestialBody("Moon", CelestialBody.BodyType.MOON);
+        moon.setMagnitude(-12.6);
+        moon.setColor(ArgbColor.rgb(200, 200, 200));
+        return moon;
+    }
+
+    static CelestialBody newPlanet(String name) {
+        CelestialBody planet = new CelestialBody(name, CelestialBody.BodyType.PLANET);
+        int index = planetIndex(name);
+        if (index >= 0) {
+            planet.setMagnitude(PLANET_MAG[index]);
+            planet.setColor(PLANET_COLOR[index]);
+        } else {
+            // Default to a generic planet
+            planet.setMagnitude(0);
+            planet.setColor(ArgbColor.WHITE);
+        }
+        return planet;
+    }
+
+    /**
+     * Sun position for days since J2000.0.
+     */
+    static void computeSun(double d, CelestialBody sun) {
+        // Mean anomaly
+        double M = 357.529 + 0.98560028 * d;
+        M = normalizeAngle(M) * RAD;
+
+        // Ecliptic longitude
+        double L = 280.459 + 0.98564736 * d;
+        double lambda = L + 1.915 * Math.sin(M) + 0.020 * Math.sin(2 * M);
+        lambda = normalizeAngle(lambda) * RAD;
+
+        // Convert to equatorial coordinates
+        double sinLambda = Math.sin(lambda);
+        double ra = Math.atan2(COS_OBLIQUITY * sinLambda, Math.cos(lambda));
+        double dec = Math.asin(SIN_OBLIQUITY * sinLambda);
+
+        sun.setRa(Coordinates.normalizeAngle(ra));
+        sun.setDec(dec);
+    }
+
+    /**
+     * Moon position for days since J2000.0 (phase is set separately).
+     */
+    static void computeMoon(double d, CelestialBody moon) {
+        // Moon's mean longitude
+        double L = 218.316 + 13.176396 * d;
+        L = normalizeAngle(L);
+
+        // Mean anomaly
+        double M = 134.963 + 13.064993 * d;
+        M = normalizeAngle(M) * RAD;
+
+        // Mean distance (argument of latitude)
+        double F = 93.272 + 13.229350 * d;
+        F = normalizeAngle(F) * RAD;
+
+        // Longitude
+        double lambda = L + 6.289 * Math.sin(M);
+        lambda = normalizeAngle(lambda) * RAD;
+
+        // Latitude
+        double beta = 5.128 * Math.sin(F);
+        beta = beta * RAD;
+
+        // Convert to equatorial
+        double sinLambda = Math.sin(lambda);
+        double ra = Math.atan2(
+                sinLambda * COS_OBLIQUITY - Math.tan(beta) * SIN_OBLIQUITY,
+                Math.cos(lambda));
+        double dec = Math.asin(
+                Math.sin(beta) * COS_OBLIQUITY + Math.cos(beta) * SIN_OBLIQUITY * sinLambda);
+
+        moon.setRa(Coordinates.normalizeAngle(ra));
+        moon.setDec(dec);
+    }
+
+    /**
+     * Moon phase from Moon and Sun positions at the same instant
+     * (0 = new, 0.5 = full).
+     */
+    static void computeMoonPhase(CelestialBody moon, CelestialBody sun) {
+        double elongation = moon.getRa() - sun.getRa();
+        double phase = (1 - Math.cos(elongation)) / 2.0;
+        moon.setPhase(phase);
+    }
+
+    /**
+     * Planet position for days since J2000.0.
+     *
+     * @param index     Index in PLANET_NAMES, or -1 for a generic planet
+     * @param workspace Orbit state reused between calls
+     */
+    static void computePlanet(int index, double d, KeplerianOrbits.Workspace workspace, CelestialBody planet) {
+        if (index < 0) {
+            planet.setRa(0.0);
+            planet.setDec(0.0);
+            return;
+        }
+        KeplerianOrbits.geocentric(index, d, workspace, planet);
+    }
+
+    /**
+     * Normalize angle to 0-360 degrees.
+     */
+    private static double normalizeAngle(double degrees) {
+        double result = degrees % 360.0;
+        if (result < 0)
+            result += 360.0;
+        return result;
+    }
+}
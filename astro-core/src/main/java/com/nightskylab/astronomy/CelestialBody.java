@@ -81,6 +81,13 @@ public class CelestialBody {
         if (type == BodyType.PLANET)
             return 6f;
 
+        return getStarRenderRadius(magnitude);
+    }
+
+    /**
+     * Get rendering radius of a star of a given magnitude.
+     */
+    public static float getStarRenderRadius(double magnitude) {
         // Stars: brightness based on magnitude (increased size for visibility)
         float base = 6.5f - (float) magnitude; // Increased from 5.0 to 6.5
         return Math.max(2.5f, Math.min(12f, base)); // Increased min/max
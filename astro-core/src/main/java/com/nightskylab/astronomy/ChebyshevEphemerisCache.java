@@ -0,0 +1,222 @@
+package com.nightskylab.astronomy;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Cache of Chebyshev polynomial segments for solar-system body positions.
+ * Each segment covers one day and fits the equatorial unit vector, so a
+ * lookup costs a few multiply-adds instead of the full ephemeris formulas.
+ *
+ * Segments are fitted lazily on a background thread and evicted least
+ * recently used. A lookup that misses schedules the segment and returns
+ * false, and the caller falls back to the direct formulas for that frame.
+ */
+public class ChebyshevEphemerisCache {
+    public static final int BODY_SUN = 0;
+    public static final int BODY_MOON = 1;
+    public static final int BODY_FIRST_PLANET = 2; // Planets follow in PLANET_NAMES order
+    public static final int BODY_COUNT = BODY_FIRST_PLANET + AstronomyEngine.PLANET_NAMES.length;
+
+    public static final double SEGMENT_DAYS = 1.0;
+
+    // Coefficients per coordinate; the Moon (fastest body) fits to ~1e-12 rad over a day
+    static final int COEFFICIENTS = 12;
+
+    // Chebyshev nodes on [-1, 1] and the cosine table used by the fit
+    private static final double[] NODES = new double[COEFFICIENTS];
+    private static final double[][] FIT_COS = new double[COEFFICIENTS][COEFFICIENTS];
+
+    static {
+        for (int k = 0; k < COEFFICIENTS; k++) {
+            NODES[k] = Math.cos(Math.PI * (k + 0.5) / COEFFICIENTS);
+            for (int j = 0; j < COEFFICIENTS; j++) {
+                FIT_COS[j][k] = Math.cos(Math.PI * j * (k + 0.5) / COEFFICIENTS);
+            }
+        }
+    }
+
+    /**
+     * One fitted day of one body: coefficients for x, y and z.
+     */
+    static class Segment {
+        final double startDay; // days since J2000.0
+        final double[] x = new double[COEFFICIENTS];
+        final double[] y = new double[COEFFICIENTS];
+        final double[] z = new double[COEFFICIENTS];
+
+        Segment(double startDay) {
+            this.startDay = startDay;
+        }
+    }
+
+    private final Map<Long, Segment> segments;
+    private final Set<Long> pending = new HashSet<>();
+    private ExecutorService worker;
+
+    /**
+     * @param maxSegments Maximum number of segments kept before LRU eviction
+     */
+    public ChebyshevEphemerisCache(final int maxSegments) {
+        segments = new LinkedHashMap<Long, Segment>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Segment> eldest) {
+                return size() > maxSegments;
+            }
+        };
+    }
+
+    /**
+     * Look up a body position from the cache.
+     * On a miss the segment is scheduled for fitting and nothing is written.
+     *
+     * @param body Body id (BODY_SUN, BODY_MOON or BODY_FIRST_PLANET + index)
+     * @param d    Days since J2000.0
+     * @param out  Receives RA and Dec in radians on a hit
+     * @return true if the position was served from the cache
+     */
+    public boolean lookup(int body, double d, CelestialBody out) {
+        long day = (long) Math.floor(d / SEGMENT_DAYS);
+        Segment segment;
+        synchronized (this) {
+            segment = segments.get(key(body, day));
+            if (segment == null) {
+                request(body, day);
+                return false;
+            }
+            // Keep the neighbouring days warm for time-warp in either direction
+            if (!segments.containsKey(key(body, day + 1)))
+                request(body, day + 1);
+            if (!segments.containsKey(key(body, day - 1)))
+                request(body, day - 1);
+        }
+
+        double t = 2.0 * (d - segment.startDay) / SEGMENT_DAYS - 1.0;
+        double x = evaluate(segment.x, t);
+        double y = evaluate(segment.y, t);
+        double z = evaluate(segment.z, t);
+        double r = Math.sqrt(x * x + y * y + z * z);
+
+        out.setRa(Coordinates.normalizeAngle(Math.atan2(y, x)));
+        out.setDec(Math.asin(Math.max(-1.0, Math.min(1.0, z / r))));
+        return true;
+    }
+
+    /**
+     * Drop all segments and stop the background worker.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            segments.clear();
+            pending.clear();
+            if (worker != null) {
+                worker.shutdownNow();
+                worker = null;
+            }
+        }
+    }
+
+    /**
+     * Schedule a segment fit. Caller holds the lock.
+     */
+    private void request(final int body, final long day) {
+        final long key = key(body, day);
+        if (!pending.add(key))
+            return;
+
+        if (worker == null) {
+            worker = Executors.newSingleThreadExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "ephemeris-cache");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+        }
+
+        worker.execute(new Runnable() {
+            @Override
+            public void run() {
+                Segment segment = fit(body, day);
+                synchronized (ChebyshevEphemerisCache.this) {
+                    if (pending.remove(key)) {
+                        segments.put(key, segment);
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Fit one day of one body from the direct formulas.
+     */
+    static Segment fit(int body, long day) {
+        Segment segment = new Segment(day * SEGMENT_DAYS);
+        CelestialBody scratch = new CelestialBody("", CelestialBody.BodyType.PLANET);
+        KeplerianOrbits.Workspace orbits = new KeplerianOrbits.Workspace(true);
+
+        double[] fx = new double[COEFFICIENTS];
+        double[] fy = new double[COEFFICIENTS];
+        double[] fz = new double[COEFFICIENTS];
+        for (int k = 0; k < COEFFICIENTS; k++) {
+            double d = segment.startDay + (NODES[k] + 1.0) * 0.5 * SEGMENT_DAYS;
+            computeDirect(body, d, orbits, scratch);
+            double cosDec = Math.cos(scratch.getDec());
+            fx[k] = cosDec * Math.cos(scratch.getRa());
+            fy[k] = cosDec * Math.sin(scratch.getRa());
+            fz[k] = Math.sin(scratch.getDec());
+        }
+
+        for (int j = 0; j < COEFFICIENTS; j++) {
+            double sx = 0, sy = 0, sz = 0;
+            for (int k = 0; k < COEFFICIENTS; k++) {
+                sx += fx[k] * FIT_COS[j][k];
+                sy += fy[k] * FIT_COS[j][k];
+                sz += fz[k] * FIT_COS[j][k];
+            }
+            double scale = (j == 0 ? 1.0 : 2.0) / COEFFICIENTS;
+            segment.x[j] = sx * scale;
+            segment.y[j] = sy * scale;
+            segment.z[j] = sz * scale;
+        }
+        return segment;
+    }
+
+    /**
+     * Position of a body from the direct formulas.
+     */
+    static void computeDirect(int body, double d, KeplerianOrbits.Workspace orbits, CelestialBody out) {
+        if (body == BODY_SUN) {
+            AstronomyEngine.computeSun(d, out);
+        } else if (body == BODY_MOON) {
+            AstronomyEngine.computeMoon(d, out);
+        } else {
+            AstronomyEngine.computePlanet(body - BODY_FIRST_PLANET, d, orbits, out);
+        }
+    }
+
+    /**
+     * Clenshaw evaluation of a Chebyshev series at t in [-1, 1].
+     */
+    private static double evaluate(double[] c, double t) {
+        double b1 = 0, b2 = 0;
+        double t2 = 2.0 * t;
+        for (int j = c.length - 1; j >= 1; j--) {
+            double b0 = t2 * b1 - b2 + c[j];
+            b2 = b1;
+            b1 = b0;
+        }
+        return t * b1 - b2 + c[0];
+    }
+
+    private static long key(int body, long day) {
+        return day * BODY_COUNT + body;
+    }
+}
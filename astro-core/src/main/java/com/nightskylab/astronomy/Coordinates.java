@@ -67,6 +67,65 @@ public class Coordinates {
         return new HorizontalCoords(alt, az);
     }
 
+    /**
+     * Batch convert equatorial coordinates to horizontal coordinates.
+     * Results are written into caller-owned arrays so no objects are
+     * allocated per element; reuse the output arrays across frames.
+     * 
+     * @param ra     Right ascensions in radians
+     * @param dec    Declinations in radians
+     * @param count  Number of entries to convert
+     * @param lst    Local sidereal time in radians
+     * @param latRad Observer latitude in radians
+     * @param altOut Output altitudes in radians (length >= count)
+     * @param azOut  Output azimuths in radians (length >= count)
+     */
+    public static void equatorialToHorizontal(double[] ra, double[] dec, int count, double lst, double latRad,
+            double[] altOut, double[] azOut) {
+        // Observer terms are shared by every entry
+        double sinLat = Math.sin(latRad);
+        double cosLat = Math.cos(latRad);
+
+        for (int i = 0; i < count; i++) {
+            double ha = lst - ra[i];
+
+            double sinDec = Math.sin(dec[i]);
+            double cosDec = Math.cos(dec[i]);
+            double cosHA = Math.cos(ha);
+
+            double sinAlt = Math.max(-1.0, Math.min(1.0, sinDec * sinLat + cosDec * cosLat * cosHA));
+            double alt = Math.asin(sinAlt);
+
+            // cos(alt) from sin(alt) saves a trig call per entry
+            double cosAlt = Math.max(1e-12, Math.sqrt(1.0 - sinAlt * sinAlt));
+            double cosAz = (sinDec - sinAlt * sinLat) / (cosAlt * cosLat);
+            double az = Math.acos(Math.max(-1.0, Math.min(1.0, cosAz)));
+
+            if (Math.sin(ha) > 0) {
+                az = (Math.PI * 2) - az;
+            }
+
+            altOut[i] = alt;
+            azOut[i] = az;
+        }
+    }
+
+    /**
+     * Convert equatorial coordinates to a Cartesian unit vector
+     * (x toward RA 0h, z toward the north celestial pole).
+     * 
+     * @param ra     Right ascension in radians
+     * @param dec    Declination in radians
+     * @param out    Output array receiving x, y, z
+     * @param offset Index of x in the output array
+     */
+    public static void equatorialToCartesian(double ra, double dec, float[] out, int offset) {
+        double cosDec = Math.cos(dec);
+        out[offset] = (float) (cosDec * Math.cos(ra));
+        out[offset + 1] = (float) (cosDec * Math.sin(ra));
+        out[offset + 2] = (float) Math.sin(dec);
+    }
+
     /**
      * Calculate Greenwich Mean Sidereal Time.
      * 
@@ -78,8 +137,16 @@ public class Coordinates {
         double jd = (dateMillis / 86400000.0) + 2440587.5;
 
         // Days since J2000.0
-        double d = jd - 2451545.0;
+        return calculateGMSTForDays(jd - 2451545.0);
+    }
 
+    /**
+     * Calculate Greenwich Mean Sidereal Time.
+     *
+     * @param d Days since J2000.0 (e.g. SimulationClock.getDaysSinceJ2000())
+     * @return GMST in hours (0 to 24)
+     */
+    public static double calculateGMSTForDays(double d) {
         // GMST at 0h UT
         double gmst = 18.697374558 + 24.06570982441908 * d;
 
@@ -99,7 +166,21 @@ public class Coordinates {
      * @return LST in radians
      */
     public static double calculateLST(long dateMillis, double lonDeg) {
-        double gmst = calculateGMST(dateMillis);
+        return gmstToLST(calculateGMST(dateMillis), lonDeg);
+    }
+
+    /**
+     * Calculate Local Sidereal Time.
+     *
+     * @param d      Days since J2000.0 (e.g. SimulationClock.getDaysSinceJ2000())
+     * @param lonDeg Observer longitude in degrees (East positive)
+     * @return LST in radians
+     */
+    public static double calculateLSTForDays(double d, double lonDeg) {
+        return gmstToLST(calculateGMSTForDays(d), lonDeg);
+    }
+
+    private static double gmstToLST(double gmst, double lonDeg) {
         double lst = gmst + (lonDeg / 15.0); // Convert longitude to hours
         lst = lst % 24.0;
         if (lst < 0)
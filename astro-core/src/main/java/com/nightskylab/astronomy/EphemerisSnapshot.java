@@ -0,0 +1,94 @@
+package com.nightskylab.astronomy;
+
+/**
+ * Positions of the Sun, Moon and planets at one instant.
+ * Computes every solar-system body in a single pass, sharing the Julian
+ * date and obliquity terms, and updates the same CelestialBody instances
+ * in place so a per-frame update allocates nothing.
+ *
+ * When backed by a ChebyshevEphemerisCache, positions come from the cached
+ * segments and the direct formulas only run on a cache miss.
+ */
+public class EphemerisSnapshot {
+    private final CelestialBody sun;
+    private final CelestialBody moon;
+    private final CelestialBody[] planets;
+    private final ChebyshevEphemerisCache cache;
+
+    // Planet orbit state, warm-started from the previous update
+    private final KeplerianOrbits.Workspace orbits = new KeplerianOrbits.Workspace(true);
+
+    private long timeMillis;
+    private double daysSinceJ2000;
+    private boolean valid = false;
+
+    public EphemerisSnapshot() {
+        this(null);
+    }
+
+    /**
+     * @param cache Segment cache to serve positions from, or null for direct formulas only
+     */
+    public EphemerisSnapshot(ChebyshevEphemerisCache cache) {
+        this.cache = cache;
+        sun = AstronomyEngine.newSun();
+        moon = AstronomyEngine.newMoon();
+        planets = new CelestialBody[AstronomyEngine.PLANET_NAMES.length];
+        for (int i = 0; i < planets.length; i++) {
+            planets[i] = AstronomyEngine.newPlanet(AstronomyEngine.PLANET_NAMES[i]);
+        }
+    }
+
+    /**
+     * Recompute all bodies for a time in milliseconds since epoch.
+     * Does nothing if the snapshot is already at that instant.
+     */
+    public void update(long timeMillis) {
+        if (valid && timeMillis == this.timeMillis)
+            return;
+
+        this.timeMillis = timeMillis;
+        double d = AstronomyEngine.daysSinceJ2000(timeMillis);
+        daysSinceJ2000 = d;
+
+        if (cache == null || !cache.lookup(ChebyshevEphemerisCache.BODY_SUN, d, sun))
+            AstronomyEngine.computeSun(d, sun);
+        if (cache == null || !cache.lookup(ChebyshevEphemerisCache.BODY_MOON, d, moon))
+            AstronomyEngine.computeMoon(d, moon);
+        AstronomyEngine.computeMoonPhase(moon, sun);
+
+        for (int i = 0; i < planets.length; i++) {
+            if (cache == null || !cache.lookup(ChebyshevEphemerisCache.BODY_FIRST_PLANET + i, d, planets[i]))
+                AstronomyEngine.computePlanet(i, d, orbits, planets[i]);
+        }
+
+        valid = true;
+    }
+
+    public CelestialBody getSun() {
+        return sun;
+    }
+
+    public CelestialBody getMoon() {
+        return moon;
+    }
+
+    /**
+     * Number of planets, ordered as AstronomyEngine.PLANET_NAMES.
+     */
+    public int getPlanetCount() {
+        return planets.length;
+    }
+
+    public CelestialBody getPlanet(int index) {
+        return planets[index];
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    public double getDaysSinceJ2000() {
+        return daysSinceJ2000;
+    }
+}
@@ -0,0 +1,41 @@
+package com.nightskylab.astronomy;
+
+/**
+ * Single-precision sine and cosine from a lookup table with linear
+ * interpolation, for single-precision projection paths.
+ * Interpolation error is under 3e-7; for |x| < 8 rad, float rounding of the
+ * table index brings the total to about 1.1e-6.
+ */
+public final class FastTrig {
+    private static final int SIZE = 4096; // power of two
+    private static final int MASK = SIZE - 1;
+    private static final float TWO_PI = (float) (2 * Math.PI);
+    private static final float HALF_PI = (float) (Math.PI / 2);
+    private static final float INDEX_SCALE = SIZE / TWO_PI;
+
+    // One extra entry so interpolation never wraps inside the table
+    private static final float[] SIN = new float[SIZE + 1];
+
+    static {
+        for (int i = 0; i <= SIZE; i++) {
+            SIN[i] = (float) Math.sin(i * 2 * Math.PI / SIZE);
+        }
+    }
+
+    private FastTrig() {
+    }
+
+    public static float sin(float radians) {
+        float index = radians * INDEX_SCALE;
+        int i = (int) index;
+        if (index < i)
+            i--; // floor for negative angles
+        float frac = index - i;
+        i &= MASK;
+        return SIN[i] + (SIN[i + 1] - SIN[i]) * frac;
+    }
+
+    public static float cos(float radians) {
+        return sin(radians + HALF_PI);
+    }
+}
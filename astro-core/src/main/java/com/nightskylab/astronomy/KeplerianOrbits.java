@@ -0,0 +1,252 @@
+package com.nightskylab.astronomy;
+
+/**
+ * Keplerian planet positions from mean orbital elements.
+ * Elements and rates are the JPL approximate elements (E.M. Standish,
+ * valid 1800-2050 AD), accurate to about an arcminute for the inner planets
+ * and a few arcminutes for Jupiter and Saturn.
+ *
+ * Slow elements (a, e, I, perihelion, node) are evaluated once per epoch
+ * day and cached in a Workspace together with the orbit-plane rotation;
+ * only the mean longitude and Kepler's equation are solved per call.
+ * Results are precessed from J2000.0 to the true equator of date, matching
+ * the Sun and Moon formulas and the precessed star catalog.
+ */
+final class KeplerianOrbits {
+    private static final double RAD = Math.PI / 180.0;
+    private static final double DAYS_PER_CENTURY = 36525.0;
+
+    // Body indices: planets in AstronomyEngine.PLANET_NAMES order, then Earth
+    static final int EARTH = 5;
+    static final int BODY_COUNT = 6;
+
+    // Elements at J2000.0: a (AU), e, I (deg), L (deg), long. perihelion (deg), long. node (deg)
+    private static final double[][] ELEMENTS = {
+            { 0.38709927, 0.20563593, 7.00497902, 252.25032350, 77.45779628, 48.33076593 }, // Mercury
+            { 0.72333566, 0.00677672, 3.39467605, 181.97909950, 131.60246718, 76.67984255 }, // Venus
+            { 1.52371034, 0.09339410, 1.84969142, -4.55343205, -23.94362959, 49.55953891 }, // Mars
+            { 5.20288700, 0.04838624, 1.30439695, 34.39644051, 14.72847983, 100.47390909 }, // Jupiter
+            { 9.53667594, 0.05386179, 2.48599187, 49.95424423, 92.59887831, 113.66242448 }, // Saturn
+            { 1.00000261, 0.01671123, -0.00001531, 100.46457166, 102.93768193, 0.0 } // Earth-Moon barycenter
+    };
+
+    // Rates per Julian century, same layout as ELEMENTS
+    private static final double[][] RATES_PER_CENTURY = {
+            { 0.00000037, 0.00001906, -0.00594749, 149472.67411175, 0.16047689, -0.12534081 },
+            { 0.00000390, -0.00004107, -0.00078890, 58517.81538729, 0.00268329, -0.27769418 },
+            { 0.00001847, 0.00007882, -0.00813131, 19140.30268499, 0.44441088, -0.29257343 },
+            { -0.00011607, -0.00013253, -0.00183714, 3034.74612775, 0.21252668, 0.20469106 },
+            { -0.00125060, -0.00050991, 0.00193609, 1222.49362201, -0.41897216, -0.28867794 },
+            { 0.00000562, -0.00004392, -0.01294668, 35999.37244981, 0.32327364, 0.0 }
+    };
+
+    // Rates converted once to per-day units
+    private static final double[][] RATES_PER_DAY = new double[BODY_COUNT][6];
+
+    static {
+        for (int b = 0; b < BODY_COUNT; b++) {
+            for (int k = 0; k < 6; k++) {
+                RATES_PER_DAY[b][k] = RATES_PER_CENTURY[b][k] / DAYS_PER_CENTURY;
+            }
+        }
+    }
+
+    // Mean obliquity at J2000.0, the reference plane of the elements
+    private static final double J2000_OBLIQUITY = 23.43928 * RAD;
+    private static final double SIN_J2000_OBLIQUITY = Math.sin(J2000_OBLIQUITY);
+    private static final double COS_J2000_OBLIQUITY = Math.cos(J2000_OBLIQUITY);
+
+    // Kepler iteration
+    private static final double KEPLER_TOLERANCE = 1e-12;
+    private static final int KEPLER_MAX_ITERATIONS = 12;
+
+    // Largest mean-anomaly step for which the previous solution is a useful start
+    private static final double WARM_START_MAX_STEP = 0.5;
+
+    private KeplerianOrbits() {
+    }
+
+    /**
+     * Per-body cached epoch elements and Kepler warm-start state.
+     */
+    static final class Orbit {
+        long epochDay = Long.MIN_VALUE;
+
+        // Elements at the epoch day
+        double a, e, semiMinorFactor; // semiMinorFactor = sqrt(1 - e^2)
+        double perihelion; // longitude of perihelion, radians
+
+        // Orbit plane -> ecliptic rotation (columns for x' and y')
+        double px, py, pz, qx, qy, qz;
+
+        // Previous solution for warm start
+        boolean hasLast = false;
+        double lastM, lastE;
+
+        // Iterations used by the most recent solve
+        int iterations;
+    }
+
+    /**
+     * Reusable orbit state for all bodies plus the last Earth position.
+     */
+    static final class Workspace {
+        final Orbit[] orbits = new Orbit[BODY_COUNT];
+        final boolean warmStart;
+
+        final double[] earth = new double[3];
+        double earthDay = Double.NaN;
+
+        final double[] scratch = new double[3];
+
+        // Precession-nutation for the current epoch bucket
+        final double[] precession = new double[9];
+        long precessionBucket = Long.MIN_VALUE;
+
+        /**
+         * @param warmStart Reuse the previous eccentric anomaly as the Newton start
+         */
+        Workspace(boolean warmStart) {
+            this.warmStart = warmStart;
+            for (int i = 0; i < BODY_COUNT; i++) {
+                orbits[i] = new Orbit();
+            }
+        }
+    }
+
+    /**
+     * Geocentric equatorial RA/Dec of a planet.
+     *
+     * @param index Planet index in AstronomyEngine.PLANET_NAMES
+     * @param d     Days since J2000.0
+     * @param out   Receives RA and Dec in radians
+     */
+    static void geocentric(int index, double d, Workspace ws, CelestialBody out) {
+        if (ws.earthDay != d) {
+            heliocentric(EARTH, d, ws, ws.earth);
+            ws.earthDay = d;
+        }
+        double[] p = ws.scratch;
+        heliocentric(index, d, ws, p);
+
+        // Geocentric ecliptic
+        double x = p[0] - ws.earth[0];
+        double y = p[1] - ws.earth[1];
+        double z = p[2] - ws.earth[2];
+
+        // Ecliptic -> J2000 equatorial
+        double xj = x;
+        double yj = y * COS_J2000_OBLIQUITY - z * SIN_J2000_OBLIQUITY;
+        double zj = y * SIN_J2000_OBLIQUITY + z * COS_J2000_OBLIQUITY;
+
+        // J2000 -> true equator of date
+        long bucket = (long) Math.floor(d / Precession.BUCKET_DAYS);
+        if (ws.precessionBucket != bucket) {
+            Precession.matrixForBucket(bucket, ws.precession);
+            ws.precessionBucket = bucket;
+        }
+        double[] m = ws.precession;
+        double xe = m[0] * xj + m[1] * yj + m[2] * zj;
+        double ye = m[3] * xj + m[4] * yj + m[5] * zj;
+        double ze = m[6] * xj + m[7] * yj + m[8] * zj;
+
+        out.setRa(Coordinates.normalizeAngle(Math.atan2(ye, xe)));
+        out.setDec(Math.atan2(ze, Math.sqrt(xe * xe + ye * ye)));
+    }
+
+    /**
+     * Heliocentric ecliptic position (AU) of a body.
+     */
+    static void heliocentric(int body, double d, Workspace ws, double[] out) {
+        Orbit orbit = ws.orbits[body];
+        long day = (long) Math.floor(d);
+        if (orbit.epochDay != day) {
+            updateEpoch(body, day, orbit);
+        }
+
+        // Mean longitude is the only fast element
+        double L = (ELEMENTS[body][3] + RATES_PER_DAY[body][3] * d) * RAD;
+        double M = remainderTwoPi(L - orbit.perihelion);
+        double E = solveKepler(M, orbit.e, orbit, ws.warmStart);
+
+        // Position in the orbit plane
+        double xp = orbit.a * (Math.cos(E) - orbit.e);
+        double yp = orbit.a * orbit.semiMinorFactor * Math.sin(E);
+
+        out[0] = orbit.px * xp + orbit.qx * yp;
+        out[1] = orbit.py * xp + orbit.qy * yp;
+        out[2] = orbit.pz * xp + orbit.qz * yp;
+    }
+
+    /**
+     * Evaluate slow elements and the orbit rotation for an epoch day.
+     */
+    private static void updateEpoch(int body, long day, Orbit orbit) {
+        double[] el = ELEMENTS[body];
+        double[] rate = RATES_PER_DAY[body];
+        double d = day;
+
+        orbit.epochDay = day;
+        orbit.a = el[0] + rate[0] * d;
+        orbit.e = el[1] + rate[1] * d;
+        orbit.semiMinorFactor = Math.sqrt(1.0 - orbit.e * orbit.e);
+
+        double inc = (el[2] + rate[2] * d) * RAD;
+        orbit.perihelion = (el[4] + rate[4] * d) * RAD;
+        double node = (el[5] + rate[5] * d) * RAD;
+        double argPeri = orbit.perihelion - node;
+
+        double cosW = Math.cos(argPeri), sinW = Math.sin(argPeri);
+        double cosN = Math.cos(node), sinN = Math.sin(node);
+        double cosI = Math.cos(inc), sinI = Math.sin(inc);
+
+        orbit.px = cosW * cosN - sinW * sinN * cosI;
+        orbit.py = cosW * sinN + sinW * cosN * cosI;
+        orbit.pz = sinW * sinI;
+        orbit.qx = -sinW * cosN - cosW * sinN * cosI;
+        orbit.qy = -sinW * sinN + cosW * cosN * cosI;
+        orbit.qz = cosW * sinI;
+    }
+
+    /**
+     * Solve Kepler's equation M = E - e sin E by Newton iteration.
+     * With warm start, iteration begins from the previous solution advanced
+     * by the change in mean anomaly, which usually converges in one step.
+     */
+    static double solveKepler(double M, double e, Orbit orbit, boolean warmStart) {
+        double E;
+        double dM = remainderTwoPi(M - orbit.lastM);
+        if (warmStart && orbit.hasLast && Math.abs(dM) < WARM_START_MAX_STEP) {
+            E = orbit.lastE + dM / (1.0 - e * Math.cos(orbit.lastE));
+        } else {
+            E = M + e * Math.sin(M);
+        }
+
+        int iterations = 0;
+        while (iterations < KEPLER_MAX_ITERATIONS) {
+            double dE = (E - e * Math.sin(E) - M) / (1.0 - e * Math.cos(E));
+            E -= dE;
+            iterations++;
+            if (Math.abs(dE) < KEPLER_TOLERANCE)
+                break;
+        }
+
+        orbit.iterations = iterations;
+        orbit.lastM = M;
+        orbit.lastE = E;
+        orbit.hasLast = true;
+        return E;
+    }
+
+    /**
+     * Reduce an angle to [-PI, PI).
+     */
+    private static double remainderTwoPi(double angle) {
+        double result = angle % (2 * Math.PI);
+        if (result >= Math.PI)
+            result -= 2 * Math.PI;
+        else if (result < -Math.PI)
+            result += 2 * Math.PI;
+        return result;
+    }
+}
@@ -0,0 +1,139 @@
+package com.nightskylab.astronomy;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * A set of J2000.0 unit vectors kept precessed to the current epoch bucket.
+ *
+ * When the simulated date crosses into a new bucket, the precessed copy is
+ * regenerated on a background thread and published with a single volatile
+ * write, so the render loop always sees a complete array and never pays for
+ * precession per frame. The array is published together with its bucket and
+ * matrix, so callers can map a query back to J2000.0 consistently.
+ */
+public class PrecessedVectors {
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "precession");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
+    private static final double[] IDENTITY = { 1, 0, 0, 0, 1, 0, 0, 0, 1 };
+
+    /**
+     * Vectors for one epoch bucket with the matrix that produced them.
+     */
+    private static final class Epoch {
+        final float[] vectors;
+        final long bucket;
+        final double[] matrix;
+
+        Epoch(float[] vectors, long bucket, double[] matrix) {
+            this.vectors = vectors;
+            this.bucket = bucket;
+            this.matrix = matrix;
+        }
+    }
+
+    private final float[] j2000;
+
+    // Published epoch; replaced as a whole, never written after publication
+    private volatile Epoch current;
+
+    // Latest bucket handed to the worker
+    private volatile long requestedBucket = Long.MIN_VALUE;
+
+    /**
+     * @param j2000 J2000.0 unit vectors (x, y, z interleaved); not modified
+     */
+    public PrecessedVectors(float[] j2000) {
+        this.j2000 = j2000;
+        this.current = new Epoch(j2000, Long.MIN_VALUE, IDENTITY);
+    }
+
+    /**
+     * Unit vectors for the most recently completed epoch bucket
+     * (J2000.0 until the first regeneration finishes).
+     */
+    public float[] get() {
+        return current.vectors;
+    }
+
+    /**
+     * Like get(), also copying the J2000.0 -> epoch matrix of the same
+     * vectors (identity before the first regeneration).
+     *
+     * @param matrixOut Receives the 3x3 matrix, row-major
+     */
+    public float[] get(double[] matrixOut) {
+        Epoch epoch = current;
+        System.arraycopy(epoch.matrix, 0, matrixOut, 0, 9);
+        return epoch.vectors;
+    }
+
+    public long getBucket() {
+        return current.bucket;
+    }
+
+    /**
+     * The unprecessed J2000.0 unit vectors.
+     */
+    public float[] getJ2000() {
+        return j2000;
+    }
+
+    /**
+     * Request vectors for the epoch bucket containing a time.
+     * Cheap when the bucket has not changed.
+     */
+    public void update(long timeMillis) {
+        final long bucket = Precession.bucket(timeMillis);
+        if (bucket == requestedBucket)
+            return;
+        requestedBucket = bucket;
+
+        WORKER.execute(new Runnable() {
+            @Override
+            public void run() {
+                // Skip buckets superseded while queued (fast time-warp)
+                if (bucket != requestedBucket)
+                    return;
+                double[] m = new double[9];
+                Precession.matrixForBucket(bucket, m);
+                current = new Epoch(precess(j2000, m), bucket, m);
+            }
+        });
+    }
+
+    /**
+     * Precess to the epoch bucket containing a time on the calling thread,
+     * so vectors handed to another thread are already current.
+     */
+    public void precessNow(long timeMillis) {
+        long bucket = Precession.bucket(timeMillis);
+        double[] m = new double[9];
+        Precession.matrixForBucket(bucket, m);
+        requestedBucket = bucket;
+        current = new Epoch(precess(j2000, m), bucket, m);
+    }
+
+    /**
+     * Rotate a set of unit vectors by a precession matrix.
+     */
+    static float[] precess(float[] vectors, double[] m) {
+        float[] out = new float[vectors.length];
+        for (int i = 0; i + 2 < vectors.length; i += 3) {
+            double x = vectors[i], y = vectors[i + 1], z = vectors[i + 2];
+            out[i] = (float) (m[0] * x + m[1] * y + m[2] * z);
+            out[i + 1] = (float) (m[3] * x + m[4] * y + m[5] * z);
+            out[i + 2] = (float) (m[6] * x + m[7] * y + m[8] * z);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,111 @@
+package com.nightskylab.astronomy;
+
+/**
+ * Precession and nutation from J2000.0 mean coordinates to true
+ * coordinates of date.
+ * Uses IAU 1976 precession angles and the main nutation terms (~1 arcsec),
+ * which is well below the resolution of the globe view.
+ *
+ * The matrix changes by well under an arcsecond per day, so callers evaluate
+ * it once per epoch bucket (one day) and reuse it for every position.
+ */
+public class Precession {
+    private static final double ARCSEC = Math.PI / (180.0 * 3600.0);
+    private static final double RAD = Math.PI / 180.0;
+
+    /**
+     * Length of one epoch bucket in days.
+     */
+    public static final double BUCKET_DAYS = 1.0;
+
+    /**
+     * Epoch bucket containing a time in milliseconds since epoch.
+     */
+    public static long bucket(long timeMillis) {
+        return (long) Math.floor(AstronomyEngine.daysSinceJ2000(timeMillis) / BUCKET_DAYS);
+    }
+
+    /**
+     * Combined precession-nutation matrix for the middle of an epoch bucket.
+     *
+     * @param bucket Epoch bucket from bucket()
+     * @param m      Receives the 3x3 matrix, row-major
+     */
+    public static void matrixForBucket(long bucket, double[] m) {
+        matrix((bucket + 0.5) * BUCKET_DAYS, m);
+    }
+
+    /**
+     * Precession matrix alone, J2000.0 mean -> mean of date, e.g. for
+     * catalogs referred to an older equinox.
+     *
+     * @param d Days since J2000.0
+     * @param m Receives the 3x3 matrix, row-major
+     */
+    public static void meanMatrix(double d, double[] m) {
+        double T = d / 36525.0;
+
+        // Precession angles (IAU 1976)
+        double zeta = (2306.2181 * T + 0.30188 * T * T + 0.017998 * T * T * T) * ARCSEC;
+        double z = (2306.2181 * T + 1.09468 * T * T + 0.018203 * T * T * T) * ARCSEC;
+        double theta = (2004.3109 * T - 0.42665 * T * T - 0.041833 * T * T * T) * ARCSEC;
+
+        double cosZeta = Math.cos(zeta), sinZeta = Math.sin(zeta);
+        double cosZ = Math.cos(z), sinZ = Math.sin(z);
+        double cosTheta = Math.cos(theta), sinTheta = Math.sin(theta);
+
+        m[0] = cosZeta * cosZ * cosTheta - sinZeta * sinZ;
+        m[1] = -sinZeta * cosZ * cosTheta - cosZeta * sinZ;
+        m[2] = -cosZ * sinTheta;
+        m[3] = cosZeta * sinZ * cosTheta + sinZeta * cosZ;
+        m[4] = -sinZeta * sinZ * cosTheta + cosZeta * cosZ;
+        m[5] = -sinZ * sinTheta;
+        m[6] = cosZeta * sinTheta;
+        m[7] = -sinZeta * sinTheta;
+        m[8] = cosTheta;
+    }
+
+    /**
+     * Combined precession-nutation matrix, J2000.0 mean -> true of date.
+     *
+     * @param d Days since J2000.0
+     * @param m Receives the 3x3 matrix, row-major
+     */
+    public static void matrix(double d, double[] m) {
+        double T = d / 36525.0;
+
+        meanMatrix(d, m);
+        double p00 = m[0], p01 = m[1], p02 = m[2];
+        double p10 = m[3], p11 = m[4], p12 = m[5];
+        double p20 = m[6], p21 = m[7], p22 = m[8];
+
+        // Nutation, main terms
+        double omega = (125.04452 - 1934.136261 * T) * RAD;
+        double Ls = (280.4665 + 36000.7698 * T) * RAD;
+        double Lm = (218.3165 + 481267.8813 * T) * RAD;
+        double dPsi = (-17.20 * Math.sin(omega) - 1.32 * Math.sin(2 * Ls) - 0.23 * Math.sin(2 * Lm)
+                + 0.21 * Math.sin(2 * omega)) * ARCSEC;
+        double dEps = (9.20 * Math.cos(omega) + 0.57 * Math.cos(2 * Ls) + 0.10 * Math.cos(2 * Lm)
+                - 0.09 * Math.cos(2 * omega)) * ARCSEC;
+
+        // Mean obliquity of date
+        double eps = (23.43929111 - 0.013004167 * T) * RAD;
+        double cosEps = Math.cos(eps), sinEps = Math.sin(eps);
+
+        // First-order nutation rotation (angles are tens of arcseconds)
+        double n01 = -dPsi * cosEps, n02 = -dPsi * sinEps;
+        double n10 = dPsi * cosEps, n12 = -dEps;
+        double n20 = dPsi * sinEps, n21 = dEps;
+
+        // m = N * P
+        m[0] = p00 + n01 * p10 + n02 * p20;
+        m[1] = p01 + n01 * p11 + n02 * p21;
+        m[2] = p02 + n01 * p12 + n02 * p22;
+        m[3] = n10 * p00 + p10 + n12 * p20;
+        m[4] = n10 * p01 + p11 + n12 * p21;
+        m[5] = n10 * p02 + p12 + n12 * p22;
+        m[6] = n20 * p00 + n21 * p10 + p20;
+        m[7] = n20 * p01 + n21 * p11 + p21;
+        m[8] = n20 * p02 + n21 * p12 + p22;
+    }
+}
@@ -0,0 +1,345 @@
+package com.nightskylab.astronomy;
+
+/**
+ * Rise, transit and set times for fixed and moving objects.
+ *
+ * Fixed objects (catalog stars) use the closed-form hour angle at the
+ * horizon, so a whole catalog costs a few trig calls per star. Moving bodies
+ * use bracketed root finding on altitude and hour angle; a Tracker keeps the
+ * previous night's events and uses them to bracket the next night directly,
+ * once a rate-bounded walk shows the event does not occur earlier.
+ *
+ * All events are the first occurrence within a 24 hour window starting at
+ * the given instant.
+ */
+public class RiseTransitSet {
+    /**
+     * No event in the window (e.g. the object never rises).
+     */
+    public static final long NONE = Long.MIN_VALUE;
+
+    /**
+     * Object stays above the horizon for the whole window (rise/set only).
+     */
+    public static final long ALWAYS_UP = Long.MAX_VALUE;
+
+    // Standard horizon altitudes (refraction and semi-diameter included)
+    public static final double STAR_HORIZON = Math.toRadians(-0.5667);
+    public static final double SUN_HORIZON = Math.toRadians(-0.8333);
+    public static final double MOON_HORIZON = Math.toRadians(0.125);
+
+    static final long WINDOW_MILLIS = 86400000L;
+
+    // Sidereal rotation rate in radians per millisecond (matches calculateGMST)
+    private static final double SIDEREAL_RATE = 24.06570982441908 * 15.0 * Math.PI / 180.0 / 86400000.0;
+
+    /**
+     * Calculate events for fixed objects in closed form. Positions are
+     * precessed to the epoch bucket of the window start, like the sky view.
+     *
+     * @param ra          J2000.0 right ascensions in radians
+     * @param dec         J2000.0 declinations in radians
+     * @param count       Number of objects
+     * @param startMillis Window start in milliseconds since epoch
+     * @param latRad      Observer latitude in radians
+     * @param lonDeg      Observer longitude in degrees (East positive)
+     * @param h0          Horizon altitude in radians (e.g. STAR_HORIZON)
+     * @param riseOut     Output rise times (NONE or ALWAYS_UP if none)
+     * @param transitOut  Output upper transit times
+     * @param setOut      Output set times (NONE or ALWAYS_UP if none)
+     */
+    public static void calculateFixed(double[] ra, double[] dec, int count, long startMillis,
+            double latRad, double lonDeg, double h0, long[] riseOut, long[] transitOut, long[] setOut) {
+        double lst0 = Coordinates.calculateLST(startMillis, lonDeg);
+        double sinLat = Math.sin(latRad);
+        double cosLat = Math.cos(latRad);
+        double sinH0 = Math.sin(h0);
+        double[] m = new double[9];
+        Precession.matrixForBucket(Precession.bucket(startMillis), m);
+
+        for (int i = 0; i < count; i++) {
+            // J2000.0 -> equator and equinox of date
+            double cosDec0 = Math.cos(dec[i]);
+            double x0 = cosDec0 * Math.cos(ra[i]);
+            double y0 = cosDec0 * Math.sin(ra[i]);
+            double z0 = Math.sin(dec[i]);
+            double x = m[0] * x0 + m[1] * y0 + m[2] * z0;
+            double y = m[3] * x0 + m[4] * y0 + m[5] * z0;
+            double sinDec = m[6] * x0 + m[7] * y0 + m[8] * z0;
+            double cosDec = Math.sqrt(x * x + y * y);
+            double raDate = Math.atan2(y, x);
+
+            // Upper transit when LST = RA
+            transitOut[i] = startMillis + (long) (Coordinates.normalizeAngle(raDate - lst0) / SIDEREAL_RATE);
+
+            double cosH0 = (sinH0 - sinLat * sinDec) / (cosLat * cosDec);
+
+            if (cosH0 < -1.0) {
+                // Circumpolar
+                riseOut[i] = ALWAYS_UP;
+                setOut[i] = ALWAYS_UP;
+            } else if (cosH0 > 1.0) {
+                // Never rises
+                riseOut[i] = NONE;
+                setOut[i] = NONE;
+            } else {
+                double H0 = Math.acos(cosH0);
+                riseOut[i] = startMillis + (long) (Coordinates.normalizeAngle(raDate - H0 - lst0) / SIDEREAL_RATE);
+                setOut[i] = startMillis + (long) (Coordinates.normalizeAngle(raDate + H0 - lst0) / SIDEREAL_RATE);
+            }
+        }
+    }
+
+    /**
+     * Event finder for one moving body (Sun, Moon or planet) at one location.
+     * Reuse the same tracker for successive nights so the previous events
+     * bracket the next ones.
+     */
+    public static class Tracker {
+        // Event indices in the output array
+        public static final int RISE = 0;
+        public static final int TRANSIT = 1;
+        public static final int SET = 2;
+
+        private static final long SCAN_STEP_MILLIS = 3600000L;
+        private static final int SCAN_SAMPLES = (int) (WINDOW_MILLIS / SCAN_STEP_MILLIS) + 1;
+        private static final long BRACKET_HALF_WIDTH = 3 * 3600000L;
+        private static final long TOLERANCE_MILLIS = 1000L;
+        private static final int MAX_REFINE_ITERATIONS = 60;
+
+        // Bounds for the walk in crosses(), per millisecond, covering the
+        // body's own motion (the Moon's at most): hour angle rate, error of
+        // the sidereal-only slope of sin(altitude), and its curvature
+        private static final double MAX_HOUR_ANGLE_RATE = 1.05 * SIDEREAL_RATE;
+        private static final double MAX_SLOPE_ERROR = 0.1 * SIDEREAL_RATE;
+        private static final double MAX_CURVATURE = 1.25 * SIDEREAL_RATE * SIDEREAL_RATE;
+        private static final long MIN_STEP_MILLIS = 60000L;
+
+        private final int body;
+        private final double lonDeg;
+        private final double sinLat, cosLat, sinH0;
+
+        private final CelestialBody scratch = new CelestialBody("", CelestialBody.BodyType.PLANET);
+        private final KeplerianOrbits.Workspace orbits = new KeplerianOrbits.Workspace(true);
+
+        // Hourly samples for a full scan
+        private final double[] altitudeSamples = new double[SCAN_SAMPLES];
+        private final double[] hourAngleSamples = new double[SCAN_SAMPLES];
+        private boolean samplesValid;
+
+        // Previous window, used to bracket the next one
+        private long lastStart = NONE;
+        private final long[] lastEvents = new long[3];
+
+        // Hour angle and sin(altitude) slope of the last position evaluation
+        private double lastHourAngle;
+        private double lastSlope;
+
+        // Event function at the end of the last walk
+        private double lastWalkValue;
+
+        /**
+         * @param name   "Sun", "Moon" or a planet name
+         * @param latRad Observer latitude in radians
+         * @param lonDeg Observer longitude in degrees (East positive)
+         * @param h0     Horizon altitude in radians (e.g. SUN_HORIZON)
+         */
+        public Tracker(String name, double latRad, double lonDeg, double h0) {
+            this.body = AstronomyEngine.bodyId(name);
+            this.lonDeg = lonDeg;
+            this.sinLat = Math.sin(latRad);
+            this.cosLat = Math.cos(latRad);
+            this.sinH0 = Math.sin(h0);
+        }
+
+        /**
+         * Calculate the first rise, transit and set in [startMillis, startMillis + 24h).
+         *
+         * @param out Receives events indexed by RISE, TRANSIT and SET
+         */
+        public void calculate(long startMillis, long[] out) {
+            samplesValid = false;
+            long shift = startMillis - lastStart;
+            boolean haveHint = lastStart != NONE && Math.abs(shift) <= 2 * WINDOW_MILLIS;
+
+            for (int event = RISE; event <= SET; event++) {
+                long result = NONE;
+                long last = lastEvents[event];
+                if (haveHint && last != NONE && last != ALWAYS_UP) {
+                    result = refineAround(event, last + shift, startMillis);
+                }
+                if (result == NONE) {
+                    result = scan(event, startMillis);
+                }
+                out[event] = result;
+            }
+
+            // No horizon crossing at all: decide between up all day and never up
+            if (out[RISE] == NONE && out[SET] == NONE && altitudeFunction(startMillis) > 0) {
+                out[RISE] = ALWAYS_UP;
+                out[SET] = ALWAYS_UP;
+            }
+
+            lastStart = startMillis;
+            System.arraycopy(out, 0, lastEvents, 0, 3);
+        }
+
+        /**
+         * Try a bracket around a predicted event time. Gives up (NONE) when
+         * the bracket misses the event or the event also occurs earlier in
+         * the window, so the caller falls back to a scan.
+         */
+        private long refineAround(int event, long predicted, long windowStart) {
+            long a = Math.max(windowStart, predicted - BRACKET_HALF_WIDTH);
+            long b = Math.min(windowStart + WINDOW_MILLIS, predicted + BRACKET_HALF_WIDTH);
+            if (a >= b)
+                return NONE;
+
+            double fa;
+            if (a > windowStart) {
+                if (crosses(event, windowStart, a))
+                    return NONE;
+                fa = lastWalkValue;
+            } else {
+                fa = eventFunction(event, a);
+            }
+            double ha = lastHourAngle;
+            double fb = eventFunction(event, b);
+            double hb = lastHourAngle;
+            if (!isCrossing(event, fa, fb, ha, hb))
+                return NONE;
+            return refine(event, a, fa, b, fb);
+        }
+
+        /**
+         * Whether the event occurs in [from, to]. Each step is as long as the
+         * rate bounds guarantee the event function keeps its sign, so only
+         * crossings closer together than MIN_STEP_MILLIS can be missed (the
+         * hourly scan misses more). Leaving a crossing of the other kind
+         * takes one long step, so a walk costs a few evaluations.
+         */
+        private boolean crosses(int event, long from, long to) {
+            double f = eventFunction(event, from);
+            double h = lastHourAngle;
+            long t = from;
+            while (t < to) {
+                long step = Math.max(MIN_STEP_MILLIS, (long) signKeepingMillis(event, f, lastSlope));
+                long next = Math.min(to, t + step);
+                double fNext = eventFunction(event, next);
+                double hNext = lastHourAngle;
+                if (isCrossing(event, f, fNext, h, hNext))
+                    return true;
+                t = next;
+                f = fNext;
+                h = hNext;
+            }
+            lastWalkValue = f;
+            return false;
+        }
+
+        /**
+         * Time over which the event function cannot change sign.
+         */
+        private static double signKeepingMillis(int event, double f, double slope) {
+            if (event == TRANSIT) {
+                // Upward through zero, or around through +-PI first
+                return (f < 0 ? -f : 2 * Math.PI - f) / MAX_HOUR_ANGLE_RATE;
+            }
+            // |f| shrinks at most at speed v plus the curvature term:
+            // the positive root of |f| - v s - MAX_CURVATURE s^2 / 2
+            double g = Math.abs(f);
+            double v = (f < 0 ? slope : -slope) + MAX_SLOPE_ERROR;
+            return 2 * g / (v + Math.sqrt(v * v + 2 * MAX_CURVATURE * g));
+        }
+
+        /**
+         * Full hourly scan of the window for the first crossing.
+         */
+        private long scan(int event, long windowStart) {
+            if (!samplesValid) {
+                for (int k = 0; k < SCAN_SAMPLES; k++) {
+                    long t = windowStart + k * SCAN_STEP_MILLIS;
+                    altitudeSamples[k] = altitudeFunction(t);
+                    hourAngleSamples[k] = lastHourAngle;
+                }
+                samplesValid = true;
+            }
+
+            double[] f = event == TRANSIT ? hourAngleSamples : altitudeSamples;
+            for (int k = 0; k + 1 < SCAN_SAMPLES; k++) {
+                if (isCrossing(event, f[k], f[k + 1], hourAngleSamples[k], hourAngleSamples[k + 1])) {
+                    long a = windowStart + k * SCAN_STEP_MILLIS;
+                    return refine(event, a, f[k], a + SCAN_STEP_MILLIS, f[k + 1]);
+                }
+            }
+            return NONE;
+        }
+
+        /**
+         * Whether [a, b] brackets the requested event.
+         */
+        private static boolean isCrossing(int event, double fa, double fb, double ha, double hb) {
+            switch (event) {
+                case RISE:
+                    return fa < 0 && fb >= 0;
+                case SET:
+                    return fa >= 0 && fb < 0;
+                default:
+                    // Upper transit: hour angle crosses zero upward, not the +-PI wrap
+                    return ha < 0 && hb >= 0 && hb - ha < Math.PI;
+            }
+        }
+
+        /**
+         * Illinois false-position refinement of a bracketed root.
+         */
+        private long refine(int event, long a, double fa, long b, double fb) {
+            int side = 0;
+            for (int i = 0; i < MAX_REFINE_ITERATIONS && b - a > TOLERANCE_MILLIS; i++) {
+                long c = a + (long) ((b - a) * (fa / (fa - fb)));
+                if (c <= a || c >= b)
+                    c = a + (b - a) / 2;
+                double fc = eventFunction(event, c);
+
+                if ((fc < 0) == (fa < 0)) {
+                    a = c;
+                    fa = fc;
+                    if (side == -1)
+                        fb *= 0.5;
+                    side = -1;
+                } else {
+                    b = c;
+                    fb = fc;
+                    if (side == 1)
+                        fa *= 0.5;
+                    side = 1;
+                }
+            }
+            return a + (b - a) / 2;
+        }
+
+        private double eventFunction(int event, long t) {
+            double f = altitudeFunction(t);
+            return event == TRANSIT ? lastHourAngle : f;
+        }
+
+        /**
+         * sin(altitude) - sin(h0) at time t; also records the hour angle
+         * and the slope from the sidereal rotation alone.
+         */
+        private double altitudeFunction(long t) {
+            AstronomyEngine.computeBody(body, AstronomyEngine.daysSinceJ2000(t), orbits, scratch);
+            double lst = Coordinates.calculateLST(t, lonDeg);
+
+            double ha = lst - scratch.getRa();
+            ha = Coordinates.normalizeAngle(ha + Math.PI) - Math.PI;
+            lastHourAngle = ha;
+
+            double dec = scratch.getDec();
+            double cosDec = Math.cos(dec);
+            double sinAlt = Math.sin(dec) * sinLat + cosDec * cosLat * Math.cos(ha);
+            lastSlope = -cosDec * cosLat * Math.sin(ha) * SIDEREAL_RATE;
+            return sinAlt - sinH0;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.nightskylab.astronomy;
+
+/**
+ * Simulated time for the sky view.
+ *
+ * Holds the current instant as primitive epoch milliseconds together with
+ * the cached days since J2000.0, so the engine and renderer read it without
+ * allocating. Advances from a monotonic nanosecond source scaled by the time
+ * speed: negative speeds run backwards, and pause freezes the instant.
+ */
+public class SimulationClock {
+    /**
+     * Monotonic time source in nanoseconds.
+     */
+    public interface TimeSource {
+        long nanoTime();
+    }
+
+    /**
+     * System.nanoTime(); unaffected by wall-clock changes.
+     */
+    public static final TimeSource SYSTEM = new TimeSource() {
+        @Override
+        public long nanoTime() {
+            return System.nanoTime();
+        }
+    };
+
+    private static final double NANOS_PER_MILLI = 1e6;
+
+    private final TimeSource source;
+    private long lastNanos;
+
+    private long timeMillis;
+    // Sub-millisecond remainder carried between ticks so slow speeds still advance
+    private double fractionMillis;
+    private double daysSinceJ2000;
+
+    private double speed = 1.0; // Real-time
+    private boolean paused = false;
+
+    public SimulationClock() {
+        this(SYSTEM, System.currentTimeMillis());
+    }
+
+    /**
+     * @param source      Monotonic time source
+     * @param startMillis Initial simulated instant in milliseconds since epoch
+     */
+    public SimulationClock(TimeSource source, long startMillis) {
+        this.source = source;
+        this.lastNanos = source.nanoTime();
+        setTimeMillis(startMillis);
+    }
+
+    /**
+     * Advance simulated time by the elapsed source time times the speed.
+     * Call once per frame.
+     */
+    public void tick() {
+        long now = source.nanoTime();
+        long elapsedNanos = now - lastNanos;
+        lastNanos = now;
+
+        if (paused || speed == 0)
+            return;
+
+        double advance = elapsedNanos / NANOS_PER_MILLI * speed + fractionMillis;
+        long wholeMillis = (long) Math.floor(advance);
+        fractionMillis = advance - wholeMillis;
+        if (wholeMillis != 0) {
+            timeMillis += wholeMillis;
+            daysSinceJ2000 = AstronomyEngine.daysSinceJ2000(timeMillis);
+        }
+    }
+
+    /**
+     * Jump to an instant, keeping speed and pause state.
+     */
+    public void setTimeMillis(long timeMillis) {
+        this.timeMillis = timeMillis;
+        this.fractionMillis = 0;
+        this.daysSinceJ2000 = AstronomyEngine.daysSinceJ2000(timeMillis);
+    }
+
+    /**
+     * Jump to the current wall-clock time.
+     */
+    public void resetToNow() {
+        setTimeMillis(System.currentTimeMillis());
+    }
+
+    public long getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * Days since J2000.0 for the current instant (cached per tick).
+     */
+    public double getDaysSinceJ2000() {
+        return daysSinceJ2000;
+    }
+
+    /**
+     * Julian date for the current instant.
+     */
+    public double getJulianDay() {
+        return daysSinceJ2000 + 2451545.0;
+    }
+
+    /**
+     * @param speed Simulated milliseconds per real millisecond (negative runs backwards)
+     */
+    public void setSpeed(double speed) {
+        this.speed = speed;
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Run time in the opposite direction at the same rate.
+     */
+    public void reverse() {
+        speed = -speed;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+}
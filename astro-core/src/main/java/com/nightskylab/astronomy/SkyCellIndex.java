@@ -0,0 +1,398 @@
+package com.nightskylab.astronomy;
+
+/**
+ * Hierarchical sky-cell index over a set of unit vectors.
+ *
+ * The sphere is split into the six faces of a cube, and each face into a
+ * quadtree of cells down to a leaf level chosen from the point count. Face
+ * coordinates are warped with atan so cells are close to equal-area, and
+ * cell edges stay great circles, so every node is bounded by a cap through
+ * its corners.
+ *
+ * Points are sorted by leaf cell in Morton order, which makes every node at
+ * every level a contiguous range of leaf cells. A query descends from the
+ * faces, skips nodes outside any cap, and emits whole ranges for nodes fully
+ * inside, so its cost scales with the visible area rather than the number of
+ * points.
+ *
+ * The sort is stable: within a cell, points keep their input order. Built
+ * over a magnitude-sorted catalog, every cell lists its brightest stars
+ * first, so drawing down to a limiting magnitude visits a prefix of each cell.
+ */
+public class SkyCellIndex {
+    // Aim for about this many points per leaf
+    private static final int TARGET_PER_LEAF = 16;
+    public static final int MAX_LEVEL = 8;
+
+    private static final int FACES = 6;
+
+    /**
+     * A spherical cap: unit center and angular radius.
+     */
+    public static final class Cap {
+        private double x, y, z;
+        private double radius; // radians
+        private double cosRadius, sinRadius;
+
+        public void set(double x, double y, double z, double radius) {
+            this.x = x;
+            this.y = y;
+            this.z = z;
+            this.radius = radius;
+            this.cosRadius = Math.cos(radius);
+            this.sinRadius = Math.sin(radius);
+        }
+
+        /**
+         * Set to a cap carried back through a rotation: the center becomes
+         * m^T * center, e.g. from equatorial of date to J2000.0 with a
+         * precession matrix.
+         *
+         * @param m 3x3 rotation, row-major
+         */
+        public void setRotated(Cap cap, double[] m) {
+            set(m[0] * cap.x + m[3] * cap.y + m[6] * cap.z,
+                    m[1] * cap.x + m[4] * cap.y + m[7] * cap.z,
+                    m[2] * cap.x + m[5] * cap.y + m[8] * cap.z,
+                    cap.radius);
+        }
+
+        /**
+         * Whether this cap and another overlap.
+         */
+        public boolean intersects(Cap other) {
+            if (radius + other.radius >= Math.PI)
+                return true;
+            // Angle between centers within the sum of radii, without acos
+            double cosD = x * other.x + y * other.y + z * other.z;
+            return cosD >= cosRadius * other.cosRadius - sinRadius * other.sinRadius;
+        }
+
+        public double getX() {
+            return x;
+        }
+
+        public double getY() {
+            return y;
+        }
+
+        public double getZ() {
+            return z;
+        }
+
+        public double getRadius() {
+            return radius;
+        }
+    }
+
+    /**
+     * Query result: half-open ranges [start, end) of leaf cells. The points
+     * of cell c are getOrder()[getCellStarts()[c] .. getCellStarts()[c + 1]).
+     * Reused between queries; arrays grow as needed.
+     */
+    public static final class Ranges {
+        int[] start = new int[64];
+        int[] end = new int[64];
+        int count;
+
+        public int size() {
+            return count;
+        }
+
+        public int start(int i) {
+            return start[i];
+        }
+
+        public int end(int i) {
+            return end[i];
+        }
+
+        /**
+         * Total number of points in all ranges.
+         *
+         * @param cellStarts getCellStarts() of the queried index
+         */
+        public int pointCount(int[] cellStarts) {
+            int total = 0;
+            for (int i = 0; i < count; i++) {
+                total += cellStarts[end[i]] - cellStarts[start[i]];
+            }
+            return total;
+        }
+
+        void add(int s, int e) {
+            if (s == e)
+                return;
+            // Morton order makes sibling nodes adjacent; merge them
+            if (count > 0 && end[count - 1] == s) {
+                end[count - 1] = e;
+                return;
+            }
+            if (count == start.length) {
+                start = java.util.Arrays.copyOf(start, count * 2);
+                end = java.util.Arrays.copyOf(end, count * 2);
+            }
+            start[count] = s;
+            end[count] = e;
+            count++;
+        }
+    }
+
+    private final int level;
+    private final int cellsPerFace;
+    private final int[] order;
+    private final int[] cellStart;
+
+    // Node caps for all levels, per face: center (x, y, z), radius, and
+    // cosine/sine of the radius so queries compare dot products without acos
+    private final float[][] nodeCenter;
+    private final float[][] nodeRadius;
+    private final double[][] nodeCos;
+    private final double[][] nodeSin;
+
+    /**
+     * Build an index over unit vectors (x, y, z interleaved), with a leaf
+     * level chosen from the point count.
+     */
+    public SkyCellIndex(float[] vectors) {
+        this(vectors, levelFor(vectors.length / 3));
+    }
+
+    /**
+     * Build an index with a fixed leaf level (0 to MAX_LEVEL).
+     */
+    public SkyCellIndex(float[] vectors, int level) {
+        if (level < 0 || level > MAX_LEVEL)
+            throw new IllegalArgumentException("Level out of range: " + level);
+        int count = vectors.length / 3;
+        this.level = level;
+        cellsPerFace = 1 << (2 * level);
+
+        // Counting sort of points by leaf cell
+        int cellCount = FACES * cellsPerFace;
+        int[] cells = new int[count];
+        cellStart = new int[cellCount + 1];
+        for (int i = 0; i < count; i++) {
+            cells[i] = cellOf(vectors[i * 3], vectors[i * 3 + 1], vectors[i * 3 + 2]);
+            cellStart[cells[i] + 1]++;
+        }
+        for (int c = 0; c < cellCount; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        order = new int[count];
+        int[] fill = new int[cellCount];
+        System.arraycopy(cellStart, 0, fill, 0, cellCount);
+        for (int i = 0; i < count; i++) {
+            order[fill[cells[i]]++] = i;
+        }
+
+        nodeCenter = new float[level + 1][];
+        nodeRadius = new float[level + 1][];
+        nodeCos = new double[level + 1][];
+        nodeSin = new double[level + 1][];
+        double[] center = new double[3];
+        double[] corner = new double[3];
+        for (int l = 0; l <= level; l++) {
+            int side = 1 << l;
+            nodeCenter[l] = new float[FACES * side * side * 3];
+            nodeRadius[l] = new float[FACES * side * side];
+            nodeCos[l] = new double[FACES * side * side];
+            nodeSin[l] = new double[FACES * side * side];
+            for (int face = 0; face < FACES; face++) {
+                for (int j = 0; j < side; j++) {
+                    for (int i = 0; i < side; i++) {
+                        computeNodeCap(face, l, i, j, face * side * side + morton(i, j), center, corner);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Leaf level of the quadtree (0 = one cell per cube face).
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Number of leaf cells (6 * 4^level).
+     */
+    public int getCellCount() {
+        return FACES * cellsPerFace;
+    }
+
+    /**
+     * Point indices sorted by cell, in input order within each cell.
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Start of each leaf cell's points in getOrder(), plus a final end entry.
+     * Leaf cells are numbered face * cellsPerFace + Morton index.
+     */
+    public int[] getCellStarts() {
+        return cellStart;
+    }
+
+    /**
+     * Collect the leaf cells that may intersect every cap.
+     * Results are conservative: all points inside the caps are covered, plus
+     * some nearby points from boundary cells.
+     */
+    public void query(Cap[] caps, Ranges out) {
+        out.count = 0;
+        for (int face = 0; face < FACES; face++) {
+            queryNode(caps, face, 0, 0, out);
+        }
+    }
+
+    private void queryNode(Cap[] caps, int face, int l, int mortonIndex, Ranges out) {
+        int side = 1 << l;
+        int node = face * side * side + mortonIndex;
+        float[] centers = nodeCenter[l];
+        double cx = centers[node * 3], cy = centers[node * 3 + 1], cz = centers[node * 3 + 2];
+        double r = nodeRadius[l][node];
+        double cosR = nodeCos[l][node], sinR = nodeSin[l][node];
+
+        boolean inside = true;
+        for (Cap cap : caps) {
+            // Angle d between centers, tested as cos d against cos(cap +/- node radius)
+            double cosD = cap.x * cx + cap.y * cy + cap.z * cz;
+            if (cap.radius + r < Math.PI && cosD < cap.cosRadius * cosR - cap.sinRadius * sinR)
+                return; // Disjoint from this cap
+            if (inside && (cap.radius < r || cosD < cap.cosRadius * cosR + cap.sinRadius * sinR))
+                inside = false;
+        }
+
+        if (inside || l == level) {
+            // Node covers leaves [first, first + span) of this face
+            int span = 1 << (2 * (level - l));
+            int first = face * cellsPerFace + mortonIndex * span;
+            out.add(first, first + span);
+            return;
+        }
+
+        for (int child = 0; child < 4; child++) {
+            queryNode(caps, face, l + 1, mortonIndex * 4 + child, out);
+        }
+    }
+
+    /**
+     * Leaf cell of a unit vector.
+     */
+    public int cellOf(double x, double y, double z) {
+        double ax = Math.abs(x), ay = Math.abs(y), az = Math.abs(z);
+        int face;
+        double u, v;
+        if (ax >= ay && ax >= az) {
+            face = x >= 0 ? 0 : 1;
+            u = y / ax;
+            v = z / ax;
+        } else if (ay >= az) {
+            face = y >= 0 ? 2 : 3;
+            u = z / ay;
+            v = x / ay;
+        } else {
+            face = z >= 0 ? 4 : 5;
+            u = x / az;
+            v = y / az;
+        }
+
+        int side = 1 << level;
+        int i = cellCoordinate(u, side);
+        int j = cellCoordinate(v, side);
+        return face * cellsPerFace + morton(i, j);
+    }
+
+    private static int cellCoordinate(double t, int side) {
+        // atan warp: equal steps in the angle subtended on the face
+        double w = (Math.atan(t) * (4 / Math.PI) + 1) * 0.5;
+        int c = (int) (w * side);
+        return c < 0 ? 0 : (c >= side ? side - 1 : c);
+    }
+
+    /**
+     * Cube-face coordinate of a cell edge at fraction w (0-1) of the face.
+     */
+    private static double edge(double w) {
+        return Math.tan((w * 2 - 1) * (Math.PI / 4));
+    }
+
+    private void computeNodeCap(int face, int l, int i, int j, int node, double[] c, double[] corner) {
+        double side = 1 << l;
+        faceToVector(face, edge((i + 0.5) / side), edge((j + 0.5) / side), c);
+
+        double minDot = 1;
+        for (int k = 0; k < 4; k++) {
+            faceToVector(face, edge((i + (k & 1)) / side), edge((j + (k >> 1)) / side), corner);
+            minDot = Math.min(minDot, c[0] * corner[0] + c[1] * corner[1] + c[2] * corner[2]);
+        }
+
+        nodeCenter[l][node * 3] = (float) c[0];
+        nodeCenter[l][node * 3 + 1] = (float) c[1];
+        nodeCenter[l][node * 3 + 2] = (float) c[2];
+        // Small pad covers float rounding of centers and points
+        double radius = angle(minDot) + 1e-5;
+        nodeRadius[l][node] = (float) radius;
+        nodeCos[l][node] = Math.cos(radius);
+        nodeSin[l][node] = Math.sin(radius);
+    }
+
+    private static void faceToVector(int face, double u, double v, double[] out) {
+        double x, y, z;
+        double sign = (face & 1) == 0 ? 1 : -1;
+        switch (face >> 1) {
+            case 0:
+                x = sign;
+                y = u;
+                z = v;
+                break;
+            case 1:
+                x = v;
+                y = sign;
+                z = u;
+                break;
+            default:
+                x = u;
+                y = v;
+                z = sign;
+                break;
+        }
+        // cellOf divides by the major component's magnitude, so u, v keep their sign
+        double norm = Math.sqrt(x * x + y * y + z * z);
+        out[0] = x / norm;
+        out[1] = y / norm;
+        out[2] = z / norm;
+    }
+
+    /**
+     * Interleave the bits of i (even) and j (odd).
+     */
+    private static int morton(int i, int j) {
+        return spread(i) | (spread(j) << 1);
+    }
+
+    private static int spread(int v) {
+        v &= 0xFFFF;
+        v = (v | (v << 8)) & 0x00FF00FF;
+        v = (v | (v << 4)) & 0x0F0F0F0F;
+        v = (v | (v << 2)) & 0x33333333;
+        v = (v | (v << 1)) & 0x55555555;
+        return v;
+    }
+
+    private static double angle(double dot) {
+        return Math.acos(Math.max(-1, Math.min(1, dot)));
+    }
+
+    private static int levelFor(int count) {
+        int level = 0;
+        while (level < MAX_LEVEL && (long) FACES << (2 * level) < (long) count / TARGET_PER_LEAF) {
+            level++;
+        }
+        return level;
+    }
+}
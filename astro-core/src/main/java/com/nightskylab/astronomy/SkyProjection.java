@@ -0,0 +1,519 @@
+package com.nightskylab.astronomy;
+
+/**
+ * Projects the celestial sphere onto the 2D globe view.
+ * Stereographic projection centered on the view direction.
+ *
+ * Points stored as equatorial unit vectors are projected through a single
+ * 3x3 matrix rebuilt once per frame from LST, latitude and view direction,
+ * so each point costs one matrix-vector multiply and a divide.
+ * projectHorizontal() keeps the original trig path as the reference
+ * implementation.
+ *
+ * With fast math enabled, projectHorizontal() switches to FastTrig table
+ * sine/cosine and single-precision arithmetic. The maximum screen error of
+ * that path is MAX_FAST_ERROR_PER_RADIUS * globeRadius pixels over the whole
+ * sphere and the full zoom range (measured 0.0013 px on a 1000 px radius globe).
+ */
+public class SkyProjection {
+    // Points below this altitude are rejected (small tolerance for horizon)
+    private static final double MIN_ALTITUDE = -0.01;
+    private static final double SIN_MIN_ALTITUDE = Math.sin(MIN_ALTITUDE);
+
+    // Screen placement
+    private float centerX, centerY;
+    private float globeRadius = 400f;
+
+    // View state
+    private double fovScale = 1.0;
+    private double viewAzimuth = Math.PI;
+    private double viewAltitude = Math.PI / 6;
+
+    // Equatorial unit vector -> view frame (row x: right, row y: up, row z: depth)
+    private double xx, xy, xz;
+    private double yx, yy, yz;
+    private double zx, zy, zz;
+
+    // Equatorial unit vector -> sine of altitude (local zenith)
+    private double ux, uy, uz;
+
+    /**
+     * Bound on the fast-math screen error divided by globeRadius.
+     * Covers FastTrig error amplified by the stereographic scale at the
+     * globe edge at the narrowest field of view (fovScale 0.3), plus float
+     * rounding of screen coordinates.
+     */
+    public static final double MAX_FAST_ERROR_PER_RADIUS = 2e-6;
+
+    // Fast-math path state (single precision)
+    private boolean fastMath = false;
+    private float sinViewAltF, cosViewAltF, fovScaleF;
+
+    // Arc subdivision: depth limit and midpoint scratch
+    private static final int MAX_ARC_DEPTH = 12;
+    private final float[] arcPoint = new float[2];
+
+    /**
+     * Receives the screen polyline of projectArc().
+     */
+    public interface ArcSink {
+        void moveTo(float x, float y);
+
+        void lineTo(float x, float y);
+    }
+
+    /**
+     * Set screen placement of the globe.
+     */
+    public void setScreen(float centerX, float centerY, float globeRadius) {
+        this.centerX = centerX;
+        this.centerY = centerY;
+        this.globeRadius = globeRadius;
+    }
+
+    /**
+     * Set sky orientation and view direction, rebuilding the frame matrix.
+     *
+     * @param lst          Local sidereal time in radians
+     * @param latRad       Observer latitude in radians
+     * @param viewAzimuth  View center azimuth in radians
+     * @param viewAltitude View center altitude in radians
+     * @param fovScale     Field of view scale (1 = default)
+     */
+    public void setOrientation(double lst, double latRad, double viewAzimuth, double viewAltitude,
+            double fovScale) {
+        // Panning accumulates the azimuth without wrapping it; wrap once here
+        // so per-point azimuth differences need at most one step
+        this.viewAzimuth = Coordinates.normalizeAngle(viewAzimuth);
+        this.viewAltitude = viewAltitude;
+        this.fovScale = fovScale;
+
+        double sinLst = Math.sin(lst);
+        double cosLst = Math.cos(lst);
+        double sinLat = Math.sin(latRad);
+        double cosLat = Math.cos(latRad);
+
+        // Equatorial -> horizontal (north, east, up)
+        double nx = -sinLat * cosLst, ny = -sinLat * sinLst, nz = cosLat;
+        double ex = -sinLst, ey = cosLst, ez = 0;
+        ux = cosLat * cosLst;
+        uy = cosLat * sinLst;
+        uz = sinLat;
+
+        // Horizontal -> view frame, same rotation as projectHorizontal()
+        double va = clampViewAltitude(viewAltitude);
+        double sinVaz = Math.sin(viewAzimuth);
+        double cosVaz = Math.cos(viewAzimuth);
+        double sinVa = Math.sin(va);
+        double cosVa = Math.cos(va);
+        sinViewAltF = (float) sinVa;
+        cosViewAltF = (float) cosVa;
+        fovScaleF = (float) fovScale;
+
+        // Horizontal direction of the view azimuth
+        double hx = cosVaz * nx + sinVaz * ex;
+        double hy = cosVaz * ny + sinVaz * ey;
+        double hz = cosVaz * nz + sinVaz * ez;
+
+        xx = -sinVaz * nx + cosVaz * ex;
+        xy = -sinVaz * ny + cosVaz * ey;
+        xz = -sinVaz * nz + cosVaz * ez;
+
+        yx = cosVa * ux - sinVa * hx;
+        yy = cosVa * uy - sinVa * hy;
+        yz = cosVa * uz - sinVa * hz;
+
+        zx = sinVa * ux + cosVa * hx;
+        zy = sinVa * uy + cosVa * hy;
+        zz = sinVa * uz + cosVa * hz;
+    }
+
+    /**
+     * Compose the current orientation with a rotation so project() and
+     * sinAltitude() accept vectors in another frame, e.g. J2000.0 vectors
+     * with the precession matrix. Call after setOrientation().
+     *
+     * @param m 3x3 rotation from that frame to equatorial of date, row-major
+     */
+    public void applyFrameRotation(double[] m) {
+        double x0 = xx, x1 = xy, x2 = xz;
+        xx = x0 * m[0] + x1 * m[3] + x2 * m[6];
+        xy = x0 * m[1] + x1 * m[4] + x2 * m[7];
+        xz = x0 * m[2] + x1 * m[5] + x2 * m[8];
+        double y0 = yx, y1 = yy, y2 = yz;
+        yx = y0 * m[0] + y1 * m[3] + y2 * m[6];
+        yy = y0 * m[1] + y1 * m[4] + y2 * m[7];
+        yz = y0 * m[2] + y1 * m[5] + y2 * m[8];
+        double z0 = zx, z1 = zy, z2 = zz;
+        zx = z0 * m[0] + z1 * m[3] + z2 * m[6];
+        zy = z0 * m[1] + z1 * m[4] + z2 * m[7];
+        zz = z0 * m[2] + z1 * m[5] + z2 * m[8];
+        double u0 = ux, u1 = uy, u2 = uz;
+        ux = u0 * m[0] + u1 * m[3] + u2 * m[6];
+        uy = u0 * m[1] + u1 * m[4] + u2 * m[7];
+        uz = u0 * m[2] + u1 * m[5] + u2 * m[8];
+    }
+
+    /**
+     * Sine of the altitude of an equatorial unit vector.
+     */
+    public double sinAltitude(double x, double y, double z) {
+        return ux * x + uy * y + uz * z;
+    }
+
+    /**
+     * Cap around the view direction (equatorial) containing every point
+     * project() can accept: inside the 95% globe clip and in front of the
+     * z1 >= 0.02 cutoff.
+     */
+    public void getViewCap(SkyCellIndex.Cap out) {
+        // Stereographic radius tan(theta / 2) / fovScale reaches 0.95 at the clip
+        double radius = Math.min(2 * Math.atan(0.95 * fovScale), Math.acos(0.02));
+        out.set(zx, zy, zz, radius);
+    }
+
+    /**
+     * Cap around the local zenith (equatorial) containing every point above
+     * the horizon tolerance.
+     */
+    public void getHorizonCap(SkyCellIndex.Cap out) {
+        out.set(ux, uy, uz, Math.PI / 2 - MIN_ALTITUDE);
+    }
+
+    /**
+     * Largest angular step for drawing great-circle arcs as straight screen
+     * segments within a pixel tolerance anywhere on the globe.
+     *
+     * Great circles project to circles of screen radius at least
+     * globeRadius / fovScale, and inside the clip the projection stretches
+     * angles by at most globeRadius * (1 + 0.95^2 fovScale^2) / (2 fovScale),
+     * so a chord spanning step radians strays from its arc by at most
+     * (step * stretch)^2 * fovScale / (8 * globeRadius) pixels.
+     */
+    public static double maxArcStep(double fovScale, double globeRadius, double tolerancePixels) {
+        return Math.sqrt(8 * globeRadius * tolerancePixels / fovScale) / maxStretch(fovScale, globeRadius);
+    }
+
+    /**
+     * Largest screen pixels per radian inside the clip (see maxArcStep()).
+     */
+    private static double maxStretch(double fovScale, double globeRadius) {
+        return globeRadius * (1 + 0.95 * 0.95 * fovScale * fovScale) / (2 * fovScale);
+    }
+
+    /**
+     * Project the great-circle arc between two equatorial unit vectors as a
+     * polyline, halving it wherever the projected midpoint strays more than
+     * tolerancePixels from the chord. Arcs near the view center, where the
+     * projection barely bends them, stay single chords; long arcs near the
+     * globe edge are split finely. Where the arc leaves the visible globe
+     * it is split down to maxArcStep(), and the crossing is then bisected so
+     * the polyline ends within tolerancePixels of the edge.
+     *
+     * @param vectors  Unit vectors, x, y, z interleaved
+     * @param a        Index of the start vector
+     * @param b        Index of the end vector
+     * @param penDown  Whether the sink's current point is already a
+     * @return Whether the sink's current point is now b (b is visible)
+     */
+    public boolean projectArc(float[] vectors, int a, int b, double tolerancePixels, boolean penDown,
+            ArcSink sink) {
+        double ax = vectors[a * 3], ay = vectors[a * 3 + 1], az = vectors[a * 3 + 2];
+        double bx = vectors[b * 3], by = vectors[b * 3 + 1], bz = vectors[b * 3 + 2];
+        boolean visibleA = project(ax, ay, az, arcPoint);
+        float sax = arcPoint[0], say = arcPoint[1];
+        boolean visibleB = project(bx, by, bz, arcPoint);
+        float sbx = arcPoint[0], sby = arcPoint[1];
+
+        double angle = Math.acos(Math.max(-1, Math.min(1, ax * bx + ay * by + az * bz)));
+        double clipStep = maxArcStep(fovScale, globeRadius, tolerancePixels);
+        return arc(ax, ay, az, sax, say, visibleA, bx, by, bz, sbx, sby, visibleB, angle, clipStep,
+                tolerancePixels, 0, penDown, sink);
+    }
+
+    /**
+     * One level of projectArc(): emit b, or split at the midpoint.
+     */
+    private boolean arc(double ax, double ay, double az, float sax, float say, boolean visibleA,
+            double bx, double by, double bz, float sbx, float sby, boolean visibleB,
+            double angle, double clipStep, double tolerance, int depth, boolean penDown, ArcSink sink) {
+        double mx = ax + bx, my = ay + by, mz = az + bz;
+        double norm = Math.sqrt(mx * mx + my * my + mz * mz);
+        // Nearly antipodal ends have no defined great circle; keep them straight
+        if (depth < MAX_ARC_DEPTH && norm > 1e-6) {
+            mx /= norm;
+            my /= norm;
+            mz /= norm;
+            boolean visibleM = project(mx, my, mz, arcPoint);
+            float smx = arcPoint[0], smy = arcPoint[1];
+
+            boolean split;
+            if (visibleA && visibleB && visibleM) {
+                split = distanceToChord(smx, smy, sax, say, sbx, sby) > tolerance;
+            } else {
+                split = angle > clipStep;
+            }
+            if (split) {
+                penDown = arc(ax, ay, az, sax, say, visibleA, mx, my, mz, smx, smy, visibleM, angle / 2,
+                        clipStep, tolerance, depth + 1, penDown, sink);
+                return arc(mx, my, mz, smx, smy, visibleM, bx, by, bz, sbx, sby, visibleB, angle / 2,
+                        clipStep, tolerance, depth + 1, penDown, sink);
+            }
+        }
+
+        if (visibleA && !visibleB) {
+            // Run on to the edge and lift the pen
+            clipEdge(ax, ay, az, sax, say, bx, by, bz, angle, tolerance);
+            if (penDown)
+                sink.lineTo(arcPoint[0], arcPoint[1]);
+            return false;
+        }
+        if (!visibleB)
+            return false;
+        if (penDown) {
+            sink.lineTo(sbx, sby);
+        } else {
+            if (!visibleA) {
+                // Start at the edge
+                clipEdge(bx, by, bz, sbx, sby, ax, ay, az, angle, tolerance);
+                sink.moveTo(arcPoint[0], arcPoint[1]);
+                sink.lineTo(sbx, sby);
+                return true;
+            }
+            sink.moveTo(sbx, sby);
+        }
+        return true;
+    }
+
+    /**
+     * Bisect an arc from visible v to hidden h for the last visible point
+     * within tolerance pixels of the clip edge; its screen position is left
+     * in arcPoint.
+     */
+    private void clipEdge(double vx, double vy, double vz, float svx, float svy, double hx, double hy, double hz,
+            double angle, double tolerance) {
+        double stretch = maxStretch(fovScale, globeRadius);
+        float edgeX = svx, edgeY = svy;
+        for (int i = 0; i < 2 * MAX_ARC_DEPTH && angle * stretch > tolerance; i++) {
+            double mx = vx + hx, my = vy + hy, mz = vz + hz;
+            double norm = Math.sqrt(mx * mx + my * my + mz * mz);
+            if (norm < 1e-6)
+                break;
+            mx /= norm;
+            my /= norm;
+            mz /= norm;
+            if (project(mx, my, mz, arcPoint)) {
+                vx = mx;
+                vy = my;
+                vz = mz;
+                edgeX = arcPoint[0];
+                edgeY = arcPoint[1];
+            } else {
+                hx = mx;
+                hy = my;
+                hz = mz;
+            }
+            angle /= 2;
+        }
+        arcPoint[0] = edgeX;
+        arcPoint[1] = edgeY;
+    }
+
+    /**
+     * Screen distance of point m from the line through a and b (from a if
+     * they coincide).
+     */
+    private static double distanceToChord(float mx, float my, float ax, float ay, float bx, float by) {
+        double dx = bx - ax, dy = by - ay;
+        double length = Math.sqrt(dx * dx + dy * dy);
+        if (length < 1e-6)
+            return Math.hypot(mx - ax, my - ay);
+        return Math.abs(dx * (my - ay) - dy * (mx - ax)) / length;
+    }
+
+    /**
+     * Project an equatorial unit vector to screen coordinates.
+     *
+     * @param out Receives screen x and y
+     * @return false if the point is below the horizon or outside the globe
+     */
+    public boolean project(double x, double y, double z, float[] out) {
+        if (ux * x + uy * y + uz * z < SIN_MIN_ALTITUDE)
+            return false;
+
+        double x1 = xx * x + xy * y + xz * z;
+        double y1 = yx * x + yy * y + yz * z;
+        double z1 = zx * x + zy * y + zz * z;
+
+        return projectViewFrame(x1, y1, z1, out);
+    }
+
+    /**
+     * Select the fast-math path for projectHorizontal().
+     */
+    public void setFastMath(boolean fastMath) {
+        this.fastMath = fastMath;
+    }
+
+    public boolean isFastMath() {
+        return fastMath;
+    }
+
+    /**
+     * Project horizontal coordinates to screen coordinates.
+     * Uses the reference trig implementation unless fast math is enabled.
+     *
+     * @param out Receives screen x and y
+     * @return false if the point is below the horizon or outside the globe
+     */
+    public boolean projectHorizontal(double az, double alt, float[] out) {
+        if (fastMath)
+            return projectHorizontalFast(az, alt, out);
+        return projectHorizontalReference(az, alt, out);
+    }
+
+    /**
+     * Reference trig implementation of the globe projection.
+     */
+    public boolean projectHorizontalReference(double az, double alt, float[] out) {
+        if (alt < MIN_ALTITUDE)
+            return false;
+
+        // Normalize azimuth difference to [-PI, PI] to handle wrap-around
+        double dAz = az - viewAzimuth;
+        while (dAz > Math.PI)
+            dAz -= 2 * Math.PI;
+        while (dAz < -Math.PI)
+            dAz += 2 * Math.PI;
+
+        double clampedViewAlt = clampViewAltitude(viewAltitude);
+
+        // Convert to 3D rotated coordinates (point relative to view center)
+        double cosAlt = Math.cos(alt);
+        double sinAlt = Math.sin(alt);
+        double cosViewAlt = Math.cos(clampedViewAlt);
+        double sinViewAlt = Math.sin(clampedViewAlt);
+        double cosDaz = Math.cos(dAz);
+        double sinDaz = Math.sin(dAz);
+
+        double x1 = cosAlt * sinDaz;
+        double y1 = sinAlt * cosViewAlt - cosAlt * sinViewAlt * cosDaz;
+        double z1 = sinAlt * sinViewAlt + cosAlt * cosViewAlt * cosDaz;
+
+        return projectViewFrame(x1, y1, z1, out);
+    }
+
+    /**
+     * Project horizontal coordinates with neither the globe clip nor the
+     * hemisphere cutoff, for outlines the caller clips to getClipRadius().
+     *
+     * @param out Receives screen x and y
+     * @return false only for points too far behind the view to place
+     */
+    public boolean projectHorizontalUnclipped(double az, double alt, float[] out) {
+        double dAz = az - viewAzimuth;
+        double clampedViewAlt = clampViewAltitude(viewAltitude);
+
+        double cosAlt = Math.cos(alt);
+        double sinAlt = Math.sin(alt);
+        double cosViewAlt = Math.cos(clampedViewAlt);
+        double sinViewAlt = Math.sin(clampedViewAlt);
+        double cosDaz = Math.cos(dAz);
+        double sinDaz = Math.sin(dAz);
+
+        double x1 = cosAlt * sinDaz;
+        double y1 = sinAlt * cosViewAlt - cosAlt * sinViewAlt * cosDaz;
+        double z1 = sinAlt * sinViewAlt + cosAlt * cosViewAlt * cosDaz;
+
+        // 120 degrees from the view center already lands well outside the globe
+        if (z1 < -0.5)
+            return false;
+
+        double scale = globeRadius / ((1.0 + z1) * fovScale);
+        out[0] = centerX + (float) (x1 * scale);
+        out[1] = centerY - (float) (y1 * scale);
+        return true;
+    }
+
+    /**
+     * Screen radius of the globe clip applied by the project methods.
+     */
+    public float getClipRadius() {
+        return 0.95f * globeRadius;
+    }
+
+    /**
+     * Fast-math projection: table sine/cosine and float arithmetic.
+     * Error bound is documented by MAX_FAST_ERROR_PER_RADIUS.
+     */
+    public boolean projectHorizontalFast(double az, double alt, float[] out) {
+        if (alt < MIN_ALTITUDE)
+            return false;
+
+        // Wrap in double before narrowing; the view azimuth is already in
+        // [0, 2 PI), so one step covers azimuths in that range
+        double wrappedDaz = az - viewAzimuth;
+        if (wrappedDaz > Math.PI)
+            wrappedDaz -= 2 * Math.PI;
+        else if (wrappedDaz < -Math.PI)
+            wrappedDaz += 2 * Math.PI;
+
+        float dAz = (float) wrappedDaz;
+        float cosAlt = FastTrig.cos((float) alt);
+        float sinAlt = FastTrig.sin((float) alt);
+        float cosDaz = FastTrig.cos(dAz);
+        float sinDaz = FastTrig.sin(dAz);
+
+        float x1 = cosAlt * sinDaz;
+        float y1 = sinAlt * cosViewAltF - cosAlt * sinViewAltF * cosDaz;
+        float z1 = sinAlt * sinViewAltF + cosAlt * cosViewAltF * cosDaz;
+
+        if (z1 < 0.02f)
+            return false;
+
+        float scale = 1f / ((1f + z1) * fovScaleF);
+        float projX = x1 * scale;
+        float projY = y1 * scale;
+
+        if (projX * projX + projY * projY > 0.95f * 0.95f)
+            return false;
+
+        out[0] = centerX + projX * globeRadius;
+        out[1] = centerY - projY * globeRadius;
+        return true;
+    }
+
+    /**
+     * Stereographic projection of a point already rotated into the view frame.
+     */
+    private boolean projectViewFrame(double x1, double y1, double z1, float[] out) {
+        // Check if behind viewing hemisphere (with tolerance)
+        if (z1 < 0.02)
+            return false;
+
+        // Stereographic projection with FOV scaling
+        double denom = 1.0 + z1;
+        if (denom < 0.1)
+            denom = 0.1; // Prevent division issues
+
+        double projX = x1 / (denom * fovScale);
+        double projY = y1 / (denom * fovScale);
+
+        // Check if within globe bounds
+        double r = Math.sqrt(projX * projX + projY * projY);
+        if (r > 0.95) // Clip at 95% of globe
+            return false;
+
+        // Convert to screen coordinates
+        out[0] = centerX + (float) (projX * globeRadius);
+        out[1] = centerY - (float) (projY * globeRadius);
+        return true;
+    }
+
+    /**
+     * Clamp view altitude to avoid singularity at poles.
+     */
+    private static double clampViewAltitude(double viewAltitude) {
+        return Math.max(-Math.PI / 2 + 0.02, Math.min(Math.PI / 2 - 0.02, viewAltitude));
+    }
+}
@@ -0,0 +1,367 @@
+package com.nightskylab.data;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.nightskylab.astronomy.ArgbColor;
+import com.nightskylab.astronomy.CelestialBody;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build-time catalog compiler.
+ *
+ * Validates the JSON star and constellation sources and writes the binary
+ * assets the app loads at runtime: stars sorted by magnitude with
+ * precomputed unit vectors (StarCatalogFormat), and constellation lines
+ * with precomputed centroids (ConstellationFormat). An IAU boundary strip
+ * table (ConstellationBoundaries), if given, must exist and cover the whole
+ * sky, and is copied through.
+ *
+ * With --tiles it instead writes a deep star catalog, in the same JSON
+ * format, as the tiled file SkyView streams from disk (StarTileFormat).
+ *
+ * Usage: CatalogCompiler stars.json constellations.json star_catalog.bin constellations.bin
+ *            [constellation_bounds.dat constellation_bounds_out.dat]
+ *        CatalogCompiler --tiles stars.json deep_stars.json star_tiles.bin
+ * Exits with status 1 and lists every problem if validation fails.
+ */
+public final class CatalogCompiler {
+    // SkyCellIndex level of deep tiles: 384 cells of about 10 degrees
+    private static final int TILE_LEVEL = 3;
+
+    // Deep tiles get one band per magnitude, the last band open-ended
+    private static final int MAX_TILE_BANDS = 8;
+
+    private CatalogCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 4 && "--tiles".equals(args[0])) {
+            compileTiles(new File(args[1]), new File(args[2]), new File(args[3]));
+            return;
+        }
+        if (args.length != 4 && args.length != 6) {
+            System.err.println("Usage: CatalogCompiler <stars.json> <constellations.json> "
+                    + "<star_catalog.bin> <constellations.bin> [<bounds.dat> <bounds_out.dat>]");
+            System.err.println("       CatalogCompiler --tiles <stars.json> <deep_stars.json> <star_tiles.bin>");
+            System.exit(2);
+        }
+        File starsJson = new File(args[0]);
+        File constellationsJson = new File(args[1]);
+
+        List<String> errors = new ArrayList<>();
+        validateStars(starsJson, errors);
+        validateConstellations(constellationsJson, errors);
+        File boundsSource = args.length == 6 ? new File(args[4]) : null;
+        if (boundsSource != null)
+            validateBoundaries(boundsSource, errors);
+        exitOnErrors(errors);
+
+        StarCatalog starCatalog = new StarCatalog();
+        starCatalog.load(new FileInputStream(starsJson));
+        // Already in magnitude order; written with FLAG_SORTED_BY_MAGNITUDE
+        List<CelestialBody> stars = starCatalog.getStars();
+
+        ConstellationData constellationData = new ConstellationData();
+        constellationData.load(new FileInputStream(constellationsJson));
+
+        OutputStream out = open(new File(args[2]));
+        try {
+            StarCatalogFormat.write(stars, out);
+        } finally {
+            out.close();
+        }
+
+        out = open(new File(args[3]));
+        try {
+            ConstellationFormat.write(constellationData.getConstellations(), out);
+        } finally {
+            out.close();
+        }
+
+        System.out.println("Compiled " + stars.size() + " stars and "
+                + constellationData.getConstellations().size() + " constellations");
+
+        if (boundsSource != null)
+            copyBoundaries(boundsSource, new File(args[5]));
+    }
+
+    /**
+     * Copy a validated boundary table to the output.
+     */
+    static void copyBoundaries(File source, File target) throws IOException {
+        OutputStream out = open(target);
+        try {
+            InputStream in = new FileInputStream(source);
+            try {
+                byte[] buffer = new byte[8192];
+                int n;
+                while ((n = in.read(buffer)) > 0) {
+                    out.write(buffer, 0, n);
+                }
+            } finally {
+                in.close();
+            }
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Tile a deep star catalog. Stars not fainter than the faintest resident
+     * star are left out, since the resident catalog already draws them.
+     */
+    static void compileTiles(File starsJson, File deepJson, File tilesFile) throws IOException {
+        List<String> errors = new ArrayList<>();
+        validateStars(starsJson, errors);
+        validateStars(deepJson, errors);
+        exitOnErrors(errors);
+
+        StarCatalog resident = new StarCatalog();
+        resident.load(new FileInputStream(starsJson));
+        float[] residentMagnitudes = resident.getMagnitudes();
+        float residentLimit = residentMagnitudes[resident.getStarCount() - 1]; // Magnitude order
+
+        StarCatalog deep = new StarCatalog();
+        deep.load(new FileInputStream(deepJson));
+        List<CelestialBody> stars = new ArrayList<>();
+        for (CelestialBody star : deep.getStars()) {
+            if (star.getMagnitude() > residentLimit)
+                stars.add(star);
+        }
+        if (stars.isEmpty()) {
+            errors.add(deepJson + ": no stars fainter than the resident limit " + residentLimit);
+            exitOnErrors(errors);
+        }
+
+        // Bands end on whole magnitudes past the resident limit
+        int firstLimit = (int) Math.floor(residentLimit) + 1;
+        double faintest = stars.get(stars.size() - 1).getMagnitude();
+        int bandCount = Math.max(1, Math.min(MAX_TILE_BANDS, (int) Math.ceil(faintest) - firstLimit + 1));
+        float[] bandLimits = new float[bandCount];
+        for (int band = 0; band < bandCount; band++) {
+            bandLimits[band] = firstLimit + band;
+        }
+
+        OutputStream out = open(tilesFile);
+        try {
+            StarTileFormat.write(stars, TILE_LEVEL, bandLimits, out);
+        } finally {
+            out.close();
+        }
+
+        System.out.println("Tiled " + stars.size() + " stars fainter than magnitude " + residentLimit
+                + " in " + bandCount + " bands");
+    }
+
+    /**
+     * Print every error and exit with status 1, if there are any.
+     */
+    private static void exitOnErrors(List<String> errors) {
+        if (!errors.isEmpty()) {
+            for (String error : errors) {
+                System.err.println("error: " + error);
+            }
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Check every strip is "raLow raHigh decLow ABBR" with RA in hours and
+     * Dec in degrees, and that the strips cover the whole sky.
+     */
+    static void validateBoundaries(File file, List<String> errors) throws IOException {
+        if (!file.exists()) {
+            errors.add(file + ": not found; run :app:downloadConstellationBounds");
+            return;
+        }
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+        int errorCount = errors.size();
+        int strips = 0;
+        try {
+            String line;
+            int number = 0;
+            while ((line = reader.readLine()) != null) {
+                number++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String where = file.getName() + ":" + number;
+                String[] fields = line.split("\\s+");
+                if (fields.length < 4) {
+                    errors.add(where + ": expected raLow raHigh decLow abbreviation");
+                    continue;
+                }
+                try {
+                    double raLow = Double.parseDouble(fields[0]);
+                    double raHigh = Double.parseDouble(fields[1]);
+                    double decLow = Double.parseDouble(fields[2]);
+                    if (!inRange(raLow, 0, 24) || !inRange(raHigh, raLow, 24) || !inRange(decLow, -90, 90))
+                        errors.add(where + ": strip out of range: " + line);
+                } catch (NumberFormatException e) {
+                    errors.add(where + ": invalid number: " + line);
+                }
+                strips++;
+            }
+        } finally {
+            reader.close();
+        }
+        if (strips == 0)
+            errors.add(file + ": no strips");
+        if (errors.size() > errorCount)
+            return; // Coverage needs every strip parsed
+
+        ConstellationBoundaries boundaries = new ConstellationBoundaries();
+        boundaries.load(new FileInputStream(file));
+        if (!boundaries.isComplete())
+            errors.add(file + ": strips leave part of the sky without a constellation");
+    }
+
+    /**
+     * Check every star has a finite position in range, a finite magnitude
+     * and, if present, a parseable color.
+     */
+    static void validateStars(File file, List<String> errors) throws IOException {
+        JsonElement root = parse(file, errors);
+        if (root == null)
+            return;
+        if (!root.isJsonArray()) {
+            errors.add(file + ": expected an array of stars");
+            return;
+        }
+
+        JsonArray array = root.getAsJsonArray();
+        if (array.size() == 0)
+            errors.add(file + ": no stars");
+
+        for (int i = 0; i < array.size(); i++) {
+            String where = file.getName() + "[" + i + "]";
+            if (!array.get(i).isJsonObject()) {
+                errors.add(where + ": expected an object");
+                continue;
+            }
+            JsonObject star = array.get(i).getAsJsonObject();
+            checkNumber(star, "ra", 0, 360, where, errors);
+            checkNumber(star, "dec", -90, 90, where, errors);
+            checkNumber(star, "mag", -30, 30, where, errors);
+
+            JsonElement color = star.get("color");
+            if (color != null && !color.isJsonNull()) {
+                try {
+                    ArgbColor.parse(color.getAsString());
+                } catch (RuntimeException e) {
+                    errors.add(where + ": invalid color " + color);
+                }
+            }
+        }
+    }
+
+    /**
+     * Check the GeoJSON structure and that every vertex is an in-range
+     * [ra, dec] pair.
+     */
+    static void validateConstellations(File file, List<String> errors) throws IOException {
+        JsonElement root = parse(file, errors);
+        if (root == null)
+            return;
+        JsonElement features = root.isJsonObject() ? root.getAsJsonObject().get("features") : null;
+        if (features == null || !features.isJsonArray()) {
+            errors.add(file + ": expected a GeoJSON object with a features array");
+            return;
+        }
+
+        JsonArray array = features.getAsJsonArray();
+        for (int i = 0; i < array.size(); i++) {
+            String where = file.getName() + " features[" + i + "]";
+            JsonObject feature = array.get(i).isJsonObject() ? array.get(i).getAsJsonObject() : null;
+            if (feature == null || !feature.has("id") || !feature.get("id").isJsonPrimitive()) {
+                errors.add(where + ": missing id");
+                continue;
+            }
+            where += " (" + feature.get("id").getAsString() + ")";
+
+            JsonElement geometry = feature.get("geometry");
+            JsonElement coordinates = geometry != null && geometry.isJsonObject()
+                    ? geometry.getAsJsonObject().get("coordinates")
+                    : null;
+            if (coordinates == null || !coordinates.isJsonArray()) {
+                errors.add(where + ": missing MultiLineString coordinates");
+                continue;
+            }
+
+            for (JsonElement line : coordinates.getAsJsonArray()) {
+                if (!line.isJsonArray()) {
+                    errors.add(where + ": line is not an array");
+                    continue;
+                }
+                for (JsonElement vertex : line.getAsJsonArray()) {
+                    if (!isCoordinate(vertex)) {
+                        errors.add(where + ": invalid vertex " + vertex);
+                    }
+                }
+            }
+        }
+    }
+
+    private static boolean isCoordinate(JsonElement vertex) {
+        if (!vertex.isJsonArray() || vertex.getAsJsonArray().size() < 2)
+            return false;
+        JsonElement ra = vertex.getAsJsonArray().get(0);
+        JsonElement dec = vertex.getAsJsonArray().get(1);
+        if (!isNumber(ra) || !isNumber(dec))
+            return false;
+        // d3-celestial style data uses RA in -180..180
+        return inRange(ra.getAsDouble(), -180, 360) && inRange(dec.getAsDouble(), -90, 90);
+    }
+
+    private static void checkNumber(JsonObject object, String key, double min, double max, String where,
+            List<String> errors) {
+        JsonElement value = object.get(key);
+        if (!isNumber(value)) {
+            errors.add(where + ": missing or non-numeric " + key);
+        } else if (!inRange(value.getAsDouble(), min, max)) {
+            errors.add(where + ": " + key + " " + value + " out of range [" + min + ", " + max + "]");
+        }
+    }
+
+    private static boolean isNumber(JsonElement value) {
+        return value != null && value.isJsonPrimitive() && value.getAsJsonPrimitive().isNumber();
+    }
+
+    private static boolean inRange(double value, double min, double max) {
+        return value >= min && value <= max; // false for NaN
+    }
+
+    private static JsonElement parse(File file, List<String> errors) throws IOException {
+        Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8);
+        try {
+            return JsonParser.parseReader(reader);
+        } catch (RuntimeException e) {
+            errors.add(file + ": " + e.getMessage());
+            return null;
+        } finally {
+            reader.close();
+        }
+    }
+
+    private static OutputStream open(File file) throws IOException {
+        File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs())
+            throw new IOException("Cannot create " + parent);
+        return new FileOutputStream(file);
+    }
+}
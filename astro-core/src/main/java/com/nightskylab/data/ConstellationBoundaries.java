@@ -0,0 +1,345 @@
+package com.nightskylab.data;
+
+import com.nightskylab.astronomy.Precession;
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * IAU constellation boundaries with a constant-time point lookup.
+ *
+ * The boundaries (Delporte 1930) run along lines of constant right ascension
+ * and declination of the B1875.0 equinox. They are loaded from the strip
+ * table of Roman (1987, CDS catalog VI/42): one strip per line with lower
+ * and upper RA (hours), lower Dec (degrees) and the constellation
+ * abbreviation. Going from north to south, a point belongs to the first
+ * strip that contains it.
+ *
+ * At load time the distinct RA and Dec edges split the sky into a grid of
+ * rectangles, each inside one constellation, resolved by one north to
+ * south sweep per strip. Uniform bins map a coordinate to its grid
+ * column and row in a step or two, so a lookup costs one precession to
+ * B1875.0, two bin lookups and a table read. Unit vectors are located
+ * without trig: columns by a pseudo-angle that increases with RA, rows by
+ * sin(Dec).
+ */
+public class ConstellationBoundaries {
+    // B1875.0 (JD 2405889.258550475) in days from J2000.0
+    private static final double B1875_DAYS = 2405889.258550475 - 2451545.0;
+
+    // Bin counts over 24 hours of RA and 180 degrees of Dec
+    private static final int RA_BINS = 1440;
+    private static final int DEC_BINS = 1800;
+
+    // J2000.0 -> B1875.0 mean equatorial
+    private static final double[] TO_B1875 = new double[9];
+
+    static {
+        Precession.meanMatrix(B1875_DAYS, TO_B1875);
+    }
+
+    /**
+     * One row of the strip table.
+     */
+    private static class Strip {
+        double raLow, raHigh; // hours
+        double decLow; // degrees
+        int constellation;
+    }
+
+    private String[] abbreviations = new String[0];
+
+    // Grid edges, ascending: RA in hours from 0 to 24, Dec in degrees from -90 to 90
+    private double[] raEdges = { 0, 24 };
+    private double[] decEdges = { -90, 90 };
+
+    // The same edges as pseudo-angles (0 to 4) and sin(Dec) (-1 to 1)
+    private double[] raPseudoEdges = { 0, 4 };
+    private double[] decSinEdges = { -1, 1 };
+
+    // Constellation of each grid rectangle (column * rows + row), -1 if none
+    private byte[] cells = { -1 };
+
+    // First grid column or row of each uniform bin, per edge array
+    private int[] raBins = new int[RA_BINS];
+    private int[] decBins = new int[DEC_BINS];
+    private int[] raPseudoBins = new int[RA_BINS];
+    private int[] decSinBins = new int[DEC_BINS];
+
+    /**
+     * Load boundaries from a strip table text stream. The stream is closed.
+     * Blank lines and lines starting with '#' are skipped.
+     */
+    public void load(InputStream is) {
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+
+            List<Strip> strips = new ArrayList<>();
+            List<String> names = new ArrayList<>();
+            Map<String, Integer> indexOf = new HashMap<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#"))
+                    continue;
+
+                String[] fields = line.split("\\s+");
+                if (fields.length < 4)
+                    throw new IllegalArgumentException("Bad boundary line: " + line);
+                Strip strip = new Strip();
+                strip.raLow = Double.parseDouble(fields[0]);
+                strip.raHigh = Double.parseDouble(fields[1]);
+                strip.decLow = Double.parseDouble(fields[2]);
+
+                String abbreviation = fields[3];
+                String key = abbreviation.toUpperCase(Locale.ROOT);
+                Integer index = indexOf.get(key);
+                if (index == null) {
+                    index = names.size();
+                    indexOf.put(key, index);
+                    names.add(abbreviation);
+                }
+                strip.constellation = index;
+                strips.add(strip);
+            }
+            reader.close();
+
+            if (names.size() > Byte.MAX_VALUE)
+                throw new IllegalArgumentException("Too many constellations: " + names.size());
+            build(strips, names.toArray(new String[0]));
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Resolve every grid rectangle and fill the bins.
+     */
+    private void build(List<Strip> strips, String[] names) {
+        // North to south; stable, so equal lower Decs keep table order
+        Collections.sort(strips, new Comparator<Strip>() {
+            @Override
+            public int compare(Strip a, Strip b) {
+                return Double.compare(b.decLow, a.decLow);
+            }
+        });
+
+        double[] ra = new double[2 * strips.size() + 2];
+        double[] dec = new double[strips.size() + 2];
+        int n = 0;
+        for (Strip strip : strips) {
+            ra[n * 2] = strip.raLow;
+            ra[n * 2 + 1] = strip.raHigh;
+            dec[n++] = strip.decLow;
+        }
+        ra[ra.length - 2] = 0;
+        ra[ra.length - 1] = 24;
+        dec[dec.length - 2] = -90;
+        dec[dec.length - 1] = 90;
+        double[] raGrid = distinct(ra, 0, 24);
+        double[] decGrid = distinct(dec, -90, 90);
+
+        int columns = raGrid.length - 1;
+        int rows = decGrid.length - 1;
+
+        // One sweep per strip from the north: each takes the rows of its
+        // columns between its lower edge and the strips already placed
+        byte[] grid = new byte[columns * rows];
+        int[] top = new int[columns];
+        Arrays.fill(top, rows);
+        for (Strip strip : strips) {
+            int firstColumn = countBelow(raGrid, strip.raLow);
+            int endColumn = countAtMost(raGrid, strip.raHigh) - 1;
+            int row = countBelow(decGrid, strip.decLow);
+            for (int c = firstColumn; c < endColumn; c++) {
+                if (row < top[c]) {
+                    Arrays.fill(grid, c * rows + row, c * rows + top[c], (byte) strip.constellation);
+                    top[c] = row;
+                }
+            }
+        }
+        for (int c = 0; c < columns; c++) {
+            Arrays.fill(grid, c * rows, c * rows + top[c], (byte) -1);
+        }
+
+        double[] raPseudo = new double[raGrid.length];
+        for (int c = 0; c < raGrid.length; c++) {
+            double angle = Math.toRadians(raGrid[c] * 15);
+            raPseudo[c] = pseudoAngle(Math.cos(angle), Math.sin(angle));
+        }
+        raPseudo[0] = 0;
+        raPseudo[raGrid.length - 1] = 4;
+        double[] decSin = new double[decGrid.length];
+        for (int r = 0; r < decGrid.length; r++) {
+            decSin[r] = Math.sin(Math.toRadians(decGrid[r]));
+        }
+        decSin[0] = -1;
+        decSin[decGrid.length - 1] = 1;
+
+        abbreviations = names;
+        raEdges = raGrid;
+        decEdges = decGrid;
+        raPseudoEdges = raPseudo;
+        decSinEdges = decSin;
+        cells = grid;
+        raBins = bins(raGrid, RA_BINS);
+        decBins = bins(decGrid, DEC_BINS);
+        raPseudoBins = bins(raPseudo, RA_BINS);
+        decSinBins = bins(decSin, DEC_BINS);
+    }
+
+    /**
+     * Monotonic stand-in for the angle of (x, y) from 0 to 2 pi: 0 to 4,
+     * one unit per quadrant.
+     */
+    private static double pseudoAngle(double x, double y) {
+        if (y >= 0)
+            return x >= 0 ? y / (x + y) : 1 - x / (y - x);
+        return x < 0 ? 2 - y / (-x - y) : 3 + x / (x - y);
+    }
+
+    /**
+     * Sorted distinct values within [min, max].
+     */
+    private static double[] distinct(double[] values, double min, double max) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = 0;
+        for (double v : sorted) {
+            if (v >= min && v <= max && (n == 0 || v != sorted[n - 1])) {
+                sorted[n++] = v;
+            }
+        }
+        return Arrays.copyOf(sorted, n);
+    }
+
+    /**
+     * Number of sorted values less than a value.
+     */
+    private static int countBelow(double[] sorted, double value) {
+        int i = Arrays.binarySearch(sorted, value);
+        return i >= 0 ? i : -i - 1;
+    }
+
+    /**
+     * Number of sorted distinct values less than or equal to a value.
+     */
+    private static int countAtMost(double[] sorted, double value) {
+        int i = Arrays.binarySearch(sorted, value);
+        return i >= 0 ? i + 1 : -i - 1;
+    }
+
+    /**
+     * Grid interval containing the start of each of binCount equal bins.
+     */
+    private static int[] bins(double[] edges, int binCount) {
+        double min = edges[0];
+        double width = (edges[edges.length - 1] - min) / binCount;
+        int[] out = new int[binCount];
+        int i = 0;
+        for (int b = 0; b < binCount; b++) {
+            double start = min + b * width;
+            while (i + 2 < edges.length && start >= edges[i + 1]) {
+                i++;
+            }
+            out[b] = i;
+        }
+        return out;
+    }
+
+    /**
+     * Constellation containing a J2000.0 equatorial unit vector.
+     *
+     * @return Index into getAbbreviation(), or -1 if no boundaries are loaded
+     */
+    public int find(double x, double y, double z) {
+        double[] m = TO_B1875;
+        double bx = m[0] * x + m[1] * y + m[2] * z;
+        double by = m[3] * x + m[4] * y + m[5] * z;
+        double bz = m[6] * x + m[7] * y + m[8] * z;
+
+        // Normalize so bz is sin(Dec) even for float-rounded input
+        double norm = Math.sqrt(bx * bx + by * by + bz * bz);
+        if (norm == 0 || bx == 0 && by == 0)
+            return findB1875(0, bz >= 0 ? 90 : -90);
+        int column = locate(raPseudoEdges, raPseudoBins, pseudoAngle(bx, by));
+        int row = locate(decSinEdges, decSinBins, bz / norm);
+        return cells[column * (decEdges.length - 1) + row];
+    }
+
+    /**
+     * Constellation containing a point given in B1875.0 coordinates.
+     *
+     * @param raHours     Right ascension in hours (0 to 24)
+     * @param decDegrees  Declination in degrees
+     * @return Index into getAbbreviation(), or -1 if no boundaries are loaded
+     */
+    public int findB1875(double raHours, double decDegrees) {
+        int column = locate(raEdges, raBins, raHours);
+        int row = locate(decEdges, decBins, decDegrees);
+        return cells[column * (decEdges.length - 1) + row];
+    }
+
+    /**
+     * Grid interval [edges[i], edges[i + 1]) of a value, starting from its
+     * bin; values past either end fall in the first or last interval.
+     */
+    private static int locate(double[] edges, int[] bins, double value) {
+        double min = edges[0];
+        int bin = (int) ((value - min) * (bins.length / (edges[edges.length - 1] - min)));
+        int i = bins[bin < 0 ? 0 : (bin >= bins.length ? bins.length - 1 : bin)];
+        // Bins are narrower than almost every interval: rarely more than one
+        // step, in either direction when the bin rounds across an edge
+        while (i + 2 < edges.length && value >= edges[i + 1]) {
+            i++;
+        }
+        while (i > 0 && value < edges[i]) {
+            i--;
+        }
+        return i;
+    }
+
+    /**
+     * Abbreviation of a constellation as written in the table, e.g. "UMA".
+     */
+    public String getAbbreviation(int index) {
+        return abbreviations[index];
+    }
+
+    /**
+     * Number of constellations in the table; 0 until loaded.
+     */
+    public int getConstellationCount() {
+        return abbreviations.length;
+    }
+
+    /**
+     * Whether every point of the sky lies in some strip, as it does for the
+     * full IAU table.
+     */
+    public boolean isComplete() {
+        if (abbreviations.length == 0)
+            return false;
+        for (byte cell : cells) {
+            if (cell < 0)
+                return false;
+        }
+        return true;
+    }
+
+    /**
+     * Number of grid rectangles resolved at load time.
+     */
+    public int getCellCount() {
+        return cells.length;
+    }
+}
@@ -0,0 +1,577 @@
+package com.nightskylab.data;
+
+import com.google.gson.Gson;
+import com.google.gson.annotations.SerializedName;
+import com.nightskylab.astronomy.Coordinates;
+import com.nightskylab.astronomy.PrecessedVectors;
+import com.nightskylab.astronomy.SkyCellIndex;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Manages constellation line and name data.
+ *
+ * Line geometry is flattened at load time into primitive buffers for
+ * drawing: one array of J2000.0 unit vectors
+ * with shared vertices stored once, an index per line point into it, and
+ * offsets of each line and constellation. The vectors are kept precessed to
+ * the current epoch, so lines project through the same per-frame transform
+ * as stars.
+ *
+ * Each constellation also gets a J2000.0 bounding cap around its line and
+ * label vertices, so a renderer can skip constellations outside the view
+ * before touching any vertex. The GeoJSON loader also keeps per-constellation
+ * point lists for the catalog compiler; the binary loader builds only the
+ * buffers.
+ */
+public class ConstellationData {
+
+    /**
+     * Represents a single constellation.
+     */
+    public static class Constellation {
+        public String id; // e.g., "UMa"
+        public String name; // e.g., "Ursa Major"
+        public List<List<Point>> lines; // Line segments
+        public Point centroid; // Label position
+
+        public Constellation(String id, String name) {
+            this.id = id;
+            this.name = name;
+            this.lines = new ArrayList<>();
+        }
+    }
+
+    /**
+     * A point in RA/Dec coordinates.
+     */
+    public static class Point {
+        public double ra; // degrees
+        public double dec; // degrees
+
+        public Point(double ra, double dec) {
+            this.ra = ra;
+            this.dec = dec;
+        }
+    }
+
+    /**
+     * JSON structure for constellation data.
+     */
+    private static class ConstellationJson {
+        @SerializedName("features")
+        List<Feature> features;
+
+        static class Feature {
+            String id;
+            Geometry geometry;
+            Properties properties;
+        }
+
+        static class Geometry {
+            String type;
+            List<List<List<Double>>> coordinates; // MultiLineString format
+        }
+
+        static class Properties {
+            String name;
+        }
+    }
+
+    private List<Constellation> constellations;
+    private Map<String, String> nameMap;
+
+    // Deduplicated line vertices, then one label vertex per constellation
+    // (J2000.0 unit vectors, x, y, z interleaved)
+    private PrecessedVectors vertices = new PrecessedVectors(new float[0]);
+
+    // Vertex index of each line point; line l is lineVertices[lineStarts[l] .. lineStarts[l + 1])
+    private int[] lineVertices = new int[0];
+    private int[] lineStarts = { 0 };
+
+    // Lines of constellation c are firstLines[c] .. firstLines[c + 1]
+    private int[] firstLines = { 0 };
+
+    // Vertex index of each constellation's label (centroid)
+    private int[] labelVertices = new int[0];
+
+    // Bounding cap of each constellation (J2000.0)
+    private SkyCellIndex.Cap[] bounds = new SkyCellIndex.Cap[0];
+
+    // Display name of each constellation
+    private String[] names = new String[0];
+
+    public ConstellationData() {
+        constellations = new ArrayList<>();
+        initializeNameMap();
+    }
+
+    /**
+     * Load constellation data from a GeoJSON stream. The stream is closed.
+     */
+    public void load(InputStream is) {
+        try {
+            InputStreamReader reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+
+            Gson gson = new Gson();
+            ConstellationJson data = gson.fromJson(reader, ConstellationJson.class);
+
+            constellations.clear();
+
+            for (ConstellationJson.Feature feature : data.features) {
+                String id = feature.id;
+                String name = nameMap.getOrDefault(id, id);
+
+                Constellation constellation = new Constellation(id, name);
+
+                // Parse line coordinates
+                if (feature.geometry != null && feature.geometry.coordinates != null) {
+                    for (List<List<Double>> lineString : feature.geometry.coordinates) {
+                        List<Point> line = new ArrayList<>();
+                        for (List<Double> coord : lineString) {
+                            if (coord.size() >= 2) {
+                                line.add(new Point(coord.get(0), coord.get(1)));
+                            }
+                        }
+                        if (!line.isEmpty()) {
+                            constellation.lines.add(line);
+                        }
+                    }
+                }
+
+                // Calculate centroid from lines
+                calculateCentroid(constellation);
+
+                constellations.add(constellation);
+            }
+            buildVertexBuffers(constellations);
+
+            reader.close();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Load constellation data from a binary stream (see ConstellationFormat).
+     * The stream is read in bulk and closed.
+     */
+    public void loadBinary(InputStream is) {
+        try {
+            ByteBuffer buffer = StarCatalogFormat.readFully(is);
+            is.close();
+            loadBinary(buffer);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Load constellation data from a binary buffer, e.g. a memory-mapped file.
+     * Builds the drawing buffers straight from the columns; getConstellations()
+     * stays empty.
+     */
+    public void loadBinary(ByteBuffer buffer) {
+        try {
+            ConstellationFormat.Columns columns = ConstellationFormat.read(buffer);
+
+            String[] displayNames = new String[columns.count];
+            for (int i = 0; i < columns.count; i++) {
+                displayNames[i] = columns.string(2 * i + 1);
+            }
+
+            // Centroids are precomputed by the catalog compiler
+            constellations.clear();
+            buildVertexBuffers(toDoubles(columns.pointRa), toDoubles(columns.pointDec), columns.firstPoint,
+                    columns.firstLine, toDoubles(columns.centroidRa), toDoubles(columns.centroidDec),
+                    displayNames);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static double[] toDoubles(float[] values) {
+        double[] out = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            out[i] = values[i];
+        }
+        return out;
+    }
+
+    /**
+     * Calculate centroid for constellation label placement.
+     */
+    private void calculateCentroid(Constellation constellation) {
+        double sumRa = 0;
+        double sumDec = 0;
+        int count = 0;
+
+        for (List<Point> line : constellation.lines) {
+            for (Point point : line) {
+                sumRa += point.ra;
+                sumDec += point.dec;
+                count++;
+            }
+        }
+
+        if (count > 0) {
+            constellation.centroid = new Point(sumRa / count, sumDec / count);
+        } else {
+            constellation.centroid = new Point(0, 0);
+        }
+    }
+
+    /**
+     * Flatten parsed constellation lists into the drawing buffers.
+     */
+    private void buildVertexBuffers(List<Constellation> list) {
+        int lineCount = 0;
+        int pointCount = 0;
+        for (Constellation constellation : list) {
+            lineCount += constellation.lines.size();
+            for (List<Point> line : constellation.lines) {
+                pointCount += line.size();
+            }
+        }
+
+        double[] pointRa = new double[pointCount];
+        double[] pointDec = new double[pointCount];
+        int[] firstPoint = new int[lineCount + 1];
+        int[] firstLine = new int[list.size() + 1];
+        double[] centroidRa = new double[list.size()];
+        double[] centroidDec = new double[list.size()];
+        String[] displayNames = new String[list.size()];
+
+        int line = 0;
+        int point = 0;
+        for (int c = 0; c < list.size(); c++) {
+            Constellation constellation = list.get(c);
+            firstLine[c] = line;
+            for (List<Point> points : constellation.lines) {
+                firstPoint[line++] = point;
+                for (Point p : points) {
+                    pointRa[point] = p.ra;
+                    pointDec[point++] = p.dec;
+                }
+            }
+            Point centroid = constellation.centroid != null ? constellation.centroid : new Point(0, 0);
+            centroidRa[c] = centroid.ra;
+            centroidDec[c] = centroid.dec;
+            displayNames[c] = constellation.name;
+        }
+        firstPoint[lineCount] = point;
+        firstLine[list.size()] = line;
+
+        buildVertexBuffers(pointRa, pointDec, firstPoint, firstLine, centroidRa, centroidDec, displayNames);
+    }
+
+    /**
+     * Build the drawing buffers from flat line points (degrees), in the
+     * layout of ConstellationFormat: line l is points firstPoint[l] ..
+     * firstPoint[l + 1], constellation c is lines firstLine[c] ..
+     * firstLine[c + 1]. Points with identical coordinates, e.g. a star
+     * shared by several lines, become one vertex.
+     */
+    private void buildVertexBuffers(double[] pointRa, double[] pointDec, int[] firstPoint, int[] firstLine,
+            double[] centroidRa, double[] centroidDec, String[] displayNames) {
+        int count = displayNames.length;
+        int pointCount = pointRa.length;
+
+        float[] vectors = new float[3 * (pointCount + count)];
+        int vertexCount = 0;
+        Map<Long, Integer> vertexOf = new HashMap<>();
+        int[] pointVertices = new int[pointCount];
+        int[] labels = new int[count];
+
+        for (int c = 0; c < count; c++) {
+            for (int p = firstPoint[firstLine[c]]; p < firstPoint[firstLine[c + 1]]; p++) {
+                // Key on the coordinates as stored in the binary catalog
+                long key = ((long) Float.floatToIntBits((float) pointRa[p]) << 32)
+                        | (Float.floatToIntBits((float) pointDec[p]) & 0xFFFFFFFFL);
+                Integer vertex = vertexOf.get(key);
+                if (vertex == null) {
+                    vertex = vertexCount;
+                    vertexOf.put(key, vertex);
+                    Coordinates.equatorialToCartesian(Math.toRadians(pointRa[p]), Math.toRadians(pointDec[p]),
+                            vectors, 3 * vertexCount++);
+                }
+                pointVertices[p] = vertex;
+            }
+
+            labels[c] = vertexCount;
+            Coordinates.equatorialToCartesian(Math.toRadians(centroidRa[c]), Math.toRadians(centroidDec[c]),
+                    vectors, 3 * vertexCount++);
+        }
+
+        SkyCellIndex.Cap[] caps = new SkyCellIndex.Cap[count];
+        for (int c = 0; c < count; c++) {
+            caps[c] = boundingCap(vectors, pointVertices, firstPoint[firstLine[c]], firstPoint[firstLine[c + 1]],
+                    labels[c]);
+        }
+
+        lineVertices = pointVertices;
+        lineStarts = firstPoint.clone();
+        firstLines = firstLine.clone();
+        labelVertices = labels;
+        bounds = caps;
+        names = displayNames;
+        vertices = new PrecessedVectors(Arrays.copyOf(vectors, 3 * vertexCount));
+    }
+
+    /**
+     * Cap around the mean direction of a constellation's vertices, reaching
+     * the farthest one.
+     */
+    private static SkyCellIndex.Cap boundingCap(float[] vectors, int[] pointVertices, int from, int to,
+            int label) {
+        double x = vectors[label * 3], y = vectors[label * 3 + 1], z = vectors[label * 3 + 2];
+        for (int k = from; k < to; k++) {
+            int v = pointVertices[k];
+            x += vectors[v * 3];
+            y += vectors[v * 3 + 1];
+            z += vectors[v * 3 + 2];
+        }
+        double norm = Math.sqrt(x * x + y * y + z * z);
+        if (norm < 1e-9) {
+            // Points spread around the whole sphere
+            x = 0;
+            y = 0;
+            z = 1;
+            norm = 1;
+        }
+        x /= norm;
+        y /= norm;
+        z /= norm;
+
+        double minDot = x * vectors[label * 3] + y * vectors[label * 3 + 1] + z * vectors[label * 3 + 2];
+        for (int k = from; k < to; k++) {
+            int v = pointVertices[k];
+            minDot = Math.min(minDot, x * vectors[v * 3] + y * vectors[v * 3 + 1] + z * vectors[v * 3 + 2]);
+        }
+
+        SkyCellIndex.Cap cap = new SkyCellIndex.Cap();
+        // Small pad covers float rounding of the vertices
+        cap.set(x, y, z, Math.acos(Math.max(-1, Math.min(1, minDot))) + 1e-5);
+        return cap;
+    }
+
+    /**
+     * Line and label vertices (x, y, z interleaved), precessed to the last
+     * epoch passed to updateEpoch().
+     */
+    public float[] getVertices() {
+        return vertices.get();
+    }
+
+    /**
+     * Like getVertices(), also copying the J2000.0 -> epoch matrix of the
+     * same vertices, e.g. to carry view caps back to getBounds().
+     *
+     * @param matrixOut Receives the 3x3 matrix, row-major
+     */
+    public float[] getVertices(double[] matrixOut) {
+        return vertices.get(matrixOut);
+    }
+
+    /**
+     * J2000.0 line and label vertices, for callers that apply their own
+     * precession.
+     */
+    public float[] getJ2000Vertices() {
+        return vertices.getJ2000();
+    }
+
+    /**
+     * Vertex index of each line point, line after line.
+     */
+    public int[] getLineVertices() {
+        return lineVertices;
+    }
+
+    /**
+     * Start of each line in getLineVertices(), plus a final end entry.
+     */
+    public int[] getLineStarts() {
+        return lineStarts;
+    }
+
+    /**
+     * First line of each constellation, plus a final end entry; indices
+     * follow getConstellations().
+     */
+    public int[] getFirstLines() {
+        return firstLines;
+    }
+
+    /**
+     * Vertex index of each constellation's label position.
+     */
+    public int[] getLabelVertices() {
+        return labelVertices;
+    }
+
+    /**
+     * J2000.0 bounding cap of each constellation's line and label vertices;
+     * indices follow getConstellations().
+     */
+    public SkyCellIndex.Cap[] getBounds() {
+        return bounds;
+    }
+
+    /**
+     * Precess vertices to the epoch bucket containing a time.
+     * Regeneration runs in the background (see PrecessedVectors).
+     */
+    public void updateEpoch(long timeMillis) {
+        vertices.update(timeMillis);
+    }
+
+    /**
+     * Precess vertices to the epoch bucket containing a time on the calling
+     * thread, e.g. a loader thread before publishing the data.
+     */
+    public void precessNow(long timeMillis) {
+        vertices.precessNow(timeMillis);
+    }
+
+    /**
+     * Constellations with their line lists, as parsed by load(); empty
+     * after loadBinary(), which keeps only the drawing buffers.
+     */
+    public List<Constellation> getConstellations() {
+        return constellations;
+    }
+
+    /**
+     * Number of constellations in the drawing buffers.
+     */
+    public int getConstellationCount() {
+        return names.length;
+    }
+
+    /**
+     * Display name of constellation c of the drawing buffers, e.g. "Ursa Major".
+     */
+    public String getConstellationName(int c) {
+        return names[c];
+    }
+
+    /**
+     * Full name of a constellation from its abbreviation, ignoring case and
+     * anything past the first three letters (e.g. "UMA" or "SER1"); the
+     * abbreviation itself if unknown.
+     */
+    public String getName(String abbreviation) {
+        String name = nameMap.get(abbreviation);
+        if (name != null)
+            return name;
+        String prefix = abbreviation.length() > 3 ? abbreviation.substring(0, 3) : abbreviation;
+        for (Map.Entry<String, String> entry : nameMap.entrySet()) {
+            if (entry.getKey().equalsIgnoreCase(prefix))
+                return entry.getValue();
+        }
+        return abbreviation;
+    }
+
+    /**
+     * Initialize constellation name mappings.
+     */
+    private void initializeNameMap() {
+        nameMap = new HashMap<>();
+        nameMap.put("And", "Andromeda");
+        nameMap.put("Ant", "Antlia");
+        nameMap.put("Aps", "Apus");
+        nameMap.put("Aqr", "Aquarius");
+        nameMap.put("Aql", "Aquila");
+        nameMap.put("Ara", "Ara");
+        nameMap.put("Ari", "Aries");
+        nameMap.put("Aur", "Auriga");
+        nameMap.put("Boo", "Boötes");
+        nameMap.put("Cae", "Caelum");
+        nameMap.put("Cam", "Camelopardalis");
+        nameMap.put("Cnc", "Cancer");
+        nameMap.put("CVn", "Canes Venatici");
+        nameMap.put("CMa", "Canis Major");
+        nameMap.put("CMi", "Canis Minor");
+        nameMap.put("Cap", "Capricornus");
+        nameMap.put("Car", "Carina");
+        nameMap.put("Cas", "Cassiopeia");
+        nameMap.put("Cen", "Centaurus");
+        nameMap.put("Cep", "Cepheus");
+        nameMap.put("Cet", "Cetus");
+        nameMap.put("Cha", "Chamaeleon");
+        nameMap.put("Cir", "Circinus");
+        nameMap.put("Col", "Columba");
+        nameMap.put("Com", "Coma Berenices");
+        nameMap.put("CrA", "Corona Australis");
+        nameMap.put("CrB", "Corona Borealis");
+        nameMap.put("Crv", "Corvus");
+        nameMap.put("Crt", "Crater");
+        nameMap.put("Cru", "Crux");
+        nameMap.put("Cyg", "Cygnus");
+        nameMap.put("Del", "Delphinus");
+        nameMap.put("Dor", "Dorado");
+        nameMap.put("Dra", "Draco");
+        nameMap.put("Equ", "Equuleus");
+        nameMap.put("Eri", "Eridanus");
+        nameMap.put("For", "Fornax");
+        nameMap.put("Gem", "Gemini");
+        nameMap.put("Gru", "Grus");
+        nameMap.put("Her", "Hercules");
+        nameMap.put("Hor", "Horologium");
+        nameMap.put("Hya", "Hydra");
+        nameMap.put("Hyi", "Hydrus");
+        nameMap.put("Ind", "Indus");
+        nameMap.put("Lac", "Lacerta");
+        nameMap.put("Leo", "Leo");
+        nameMap.put("LMi", "Leo Minor");
+        nameMap.put("Lep", "Lepus");
+        nameMap.put("Lib", "Libra");
+        nameMap.put("Lup", "Lupus");
+        nameMap.put("Lyn", "Lynx");
+        nameMap.put("Lyr", "Lyra");
+        nameMap.put("Men", "Mensa");
+        nameMap.put("Mic", "Microscopium");
+        nameMap.put("Mon", "Monoceros");
+        nameMap.put("Mus", "Musca");
+        nameMap.put("Nor", "Norma");
+        nameMap.put("Oct", "Octans");
+        nameMap.put("Oph", "Ophiuchus");
+        nameMap.put("Ori", "Orion");
+        nameMap.put("Pav", "Pavo");
+        nameMap.put("Peg", "Pegasus");
+        nameMap.put("Per", "Perseus");
+        nameMap.put("Phe", "Phoenix");
+        nameMap.put("Pic", "Pictor");
+        nameMap.put("Psc", "Pisces");
+        nameMap.put("PsA", "Piscis Austrinus");
+        nameMap.put("Pup", "Puppis");
+        nameMap.put("Pyx", "Pyxis");
+        nameMap.put("Ret", "Reticulum");
+        nameMap.put("Sge", "Sagitta");
+        nameMap.put("Sgr", "Sagittarius");
+        nameMap.put("Sco", "Scorpius");
+        nameMap.put("Scl", "Sculptor");
+        nameMap.put("Sct", "Scutum");
+        nameMap.put("Ser", "Serpens");
+        nameMap.put("Sex", "Sextans");
+        nameMap.put("Tau", "Taurus");
+        nameMap.put("Tel", "Telescopium");
+        nameMap.put("Tri", "Triangulum");
+        nameMap.put("TrA", "Triangulum Australe");
+        nameMap.put("Tuc", "Tucana");
+        nameMap.put("UMa", "Ursa Major");
+        nameMap.put("UMi", "Ursa Minor");
+        nameMap.put("Vel", "Vela");
+        nameMap.put("Vir", "Virgo");
+        nameMap.put("Vol", "Volans");
+        nameMap.put("Vul", "Vulpecula");
+    }
+}
@@ -0,0 +1,193 @@
+package com.nightskylab.data;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compact binary constellation line catalog.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * int        magic "NSKL"
+ * int        version
+ * int        constellation count c
+ * int        line count l
+ * int        point count p
+ * int        string table length in bytes
+ * float[c]   centroid RA (degrees)
+ * float[c]   centroid Dec (degrees)
+ * int[c+1]   first line of each constellation
+ * int[l+1]   first point of each line
+ * float[p]   point RA (degrees)
+ * float[p]   point Dec (degrees)
+ * int[2c+1]  string offsets: id then name for each constellation
+ * byte[]     string table (UTF-8, concatenated)
+ * </pre>
+ * Centroids are precomputed by the writer.
+ */
+public final class ConstellationFormat {
+    static final int MAGIC = 0x4E534B4C; // "NSKL"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 24;
+
+    private ConstellationFormat() {
+    }
+
+    /**
+     * Decoded catalog columns.
+     */
+    static final class Columns {
+        int count;
+        float[] centroidRa;
+        float[] centroidDec;
+        int[] firstLine;
+        int[] firstPoint;
+        float[] pointRa;
+        float[] pointDec;
+        int[] stringOffsets;
+        byte[] strings;
+
+        String string(int index) {
+            int start = stringOffsets[index];
+            return new String(strings, start, stringOffsets[index + 1] - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Write constellations in the binary format. The stream is not closed.
+     */
+    public static void write(List<ConstellationData.Constellation> constellations, OutputStream out)
+            throws IOException {
+        int c = constellations.size();
+        int lineCount = 0;
+        int pointCount = 0;
+        for (ConstellationData.Constellation constellation : constellations) {
+            lineCount += constellation.lines.size();
+            for (List<ConstellationData.Point> line : constellation.lines) {
+                pointCount += line.size();
+            }
+        }
+
+        ByteArrayOutputStream strings = new ByteArrayOutputStream();
+        int[] offsets = new int[2 * c + 1];
+        for (int i = 0; i < c; i++) {
+            ConstellationData.Constellation constellation = constellations.get(i);
+            byte[] id = constellation.id.getBytes(StandardCharsets.UTF_8);
+            strings.write(id, 0, id.length);
+            offsets[2 * i + 1] = strings.size();
+            byte[] name = constellation.name.getBytes(StandardCharsets.UTF_8);
+            strings.write(name, 0, name.length);
+            offsets[2 * i + 2] = strings.size();
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(c);
+        data.writeInt(lineCount);
+        data.writeInt(pointCount);
+        data.writeInt(strings.size());
+
+        for (ConstellationData.Constellation constellation : constellations) {
+            data.writeFloat((float) constellation.centroid.ra);
+        }
+        for (ConstellationData.Constellation constellation : constellations) {
+            data.writeFloat((float) constellation.centroid.dec);
+        }
+
+        int line = 0;
+        data.writeInt(0);
+        for (ConstellationData.Constellation constellation : constellations) {
+            line += constellation.lines.size();
+            data.writeInt(line);
+        }
+
+        int point = 0;
+        data.writeInt(0);
+        for (ConstellationData.Constellation constellation : constellations) {
+            for (List<ConstellationData.Point> points : constellation.lines) {
+                point += points.size();
+                data.writeInt(point);
+            }
+        }
+
+        for (ConstellationData.Constellation constellation : constellations) {
+            for (List<ConstellationData.Point> points : constellation.lines) {
+                for (ConstellationData.Point p : points) {
+                    data.writeFloat((float) p.ra);
+                }
+            }
+        }
+        for (ConstellationData.Constellation constellation : constellations) {
+            for (List<ConstellationData.Point> points : constellation.lines) {
+                for (ConstellationData.Point p : points) {
+                    data.writeFloat((float) p.dec);
+                }
+            }
+        }
+
+        for (int offset : offsets) {
+            data.writeInt(offset);
+        }
+        strings.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Decode all columns from a buffer positioned at the start of a catalog.
+     *
+     * @throws IOException if the buffer does not hold a supported catalog
+     */
+    static Columns read(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC)
+            throw new IOException("Not a binary constellation catalog");
+        int version = in.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported constellation catalog version " + version);
+
+        int c = in.getInt();
+        int l = in.getInt();
+        int p = in.getInt();
+        int stringsLength = in.getInt();
+        long columnBytes = 4L * (2L * c + (c + 1) + (l + 1) + 2L * p + (2L * c + 1));
+        if (c < 0 || l < 0 || p < 0 || stringsLength < 0 || in.remaining() < columnBytes + stringsLength)
+            throw new IOException("Truncated constellation catalog");
+
+        Columns columns = new Columns();
+        columns.count = c;
+        columns.centroidRa = new float[c];
+        columns.centroidDec = new float[c];
+        columns.firstLine = new int[c + 1];
+        columns.firstPoint = new int[l + 1];
+        columns.pointRa = new float[p];
+        columns.pointDec = new float[p];
+        columns.stringOffsets = new int[2 * c + 1];
+        columns.strings = new byte[stringsLength];
+
+        // Bulk column reads; each view starts at the current position
+        in.asFloatBuffer().get(columns.centroidRa);
+        in.position(in.position() + 4 * c);
+        in.asFloatBuffer().get(columns.centroidDec);
+        in.position(in.position() + 4 * c);
+        in.asIntBuffer().get(columns.firstLine);
+        in.position(in.position() + 4 * (c + 1));
+        in.asIntBuffer().get(columns.firstPoint);
+        in.position(in.position() + 4 * (l + 1));
+        in.asFloatBuffer().get(columns.pointRa);
+        in.position(in.position() + 4 * p);
+        in.asFloatBuffer().get(columns.pointDec);
+        in.position(in.position() + 4 * p);
+        in.asIntBuffer().get(columns.stringOffsets);
+        in.position(in.position() + 4 * (2 * c + 1));
+        in.get(columns.strings);
+
+        return columns;
+    }
+}
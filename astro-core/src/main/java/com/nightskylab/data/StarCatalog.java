@@ -0,0 +1,553 @@
+package com.nightskylab.data;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.nightskylab.astronomy.ArgbColor;
+import com.nightskylab.astronomy.CelestialBody;
+import com.nightskylab.astronomy.Coordinates;
+import com.nightskylab.astronomy.PrecessedVectors;
+import com.nightskylab.astronomy.SkyCellIndex;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Manages star catalog data loaded from JSON or binary resources.
+ *
+ * Stars are kept in ascending magnitude order (brightest first), both in the
+ * catalog and within each sky cell, so the stars down to a limiting
+ * magnitude are always a prefix.
+ *
+ * Storage is a structure of arrays indexed by star: positions, magnitudes,
+ * colors and an index into a shared name table, so draw loops read
+ * primitives instead of one object per star. getStars() offers the same
+ * data as CelestialBody objects through a view that creates them on access.
+ */
+public class StarCatalog {
+    private int count;
+
+    // Positions as primitive arrays for batch coordinate conversion (radians)
+    private double[] raArray = new double[0];
+    private double[] decArray = new double[0];
+
+    // Equatorial unit vectors (x, y, z interleaved), precomputed at load time
+    // and kept precessed to the current epoch bucket
+    private PrecessedVectors unitVectors = new PrecessedVectors(new float[0]);
+
+    // Magnitudes in catalog order (ascending)
+    private float[] magnitudes = new float[0];
+
+    // Packed ARGB colors
+    private int[] colors = new int[0];
+
+    // Names: index per star into a table shared by the catalog; 0 is unnamed
+    private int[] nameIndex = new int[0];
+    private String[] nameTable = { "" };
+
+    // Constellation of each star (index into ConstellationBoundaries), or
+    // null until tagConstellations()
+    private byte[] constellations;
+
+    // CelestialBody view over the arrays
+    private List<CelestialBody> starView = Collections.emptyList();
+
+    // Sky-cell index over the J2000.0 unit vectors
+    private SkyCellIndex cellIndex = new SkyCellIndex(new float[0]);
+
+    // Query scratch: caps rotated back to J2000.0 (render thread only)
+    private final double[] queryMatrix = new double[9];
+    private SkyCellIndex.Cap[] j2000Caps = new SkyCellIndex.Cap[0];
+
+    /**
+     * Star data structure for JSON parsing.
+     */
+    private static class StarData {
+        double ra; // degrees
+        double dec; // degrees
+        double mag;
+        String name;
+        String color;
+    }
+
+    /**
+     * Load star catalog from a JSON stream. The stream is closed.
+     */
+    public void load(InputStream is) {
+        try {
+            InputStreamReader reader = new InputStreamReader(is, StandardCharsets.UTF_8);
+
+            Gson gson = new Gson();
+            Type listType = new TypeToken<List<StarData>>() {
+            }.getType();
+            List<StarData> starDataList = gson.fromJson(reader, listType);
+
+            int n = starDataList.size();
+            float[] mag = new float[n];
+            double[] ra = new double[n];
+            double[] dec = new double[n];
+            int[] color = new int[n];
+            float[] vectors = new float[3 * n];
+            List<String> names = new ArrayList<>();
+            names.add("");
+            int[] nameIdx = new int[n];
+            for (int i = 0; i < n; i++) {
+                StarData data = starDataList.get(i);
+
+                // Convert degrees to radians
+                ra[i] = Math.toRadians(data.ra);
+                dec[i] = Math.toRadians(data.dec);
+                mag[i] = (float) data.mag;
+
+                // Parse color or use default
+                color[i] = parseColor(data.color);
+
+                if (data.name != null && !data.name.isEmpty()) {
+                    nameIdx[i] = names.size();
+                    names.add(data.name);
+                }
+                Coordinates.equatorialToCartesian(ra[i], dec[i], vectors, i * 3);
+            }
+
+            setStars(n, mag, ra, dec, color, vectors, nameIdx, names.toArray(new String[0]));
+
+            reader.close();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Load star catalog from a binary stream (see StarCatalogFormat).
+     * The stream is read in bulk and closed.
+     */
+    public void loadBinary(InputStream is) {
+        try {
+            ByteBuffer buffer = StarCatalogFormat.readFully(is);
+            is.close();
+            loadBinary(buffer);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Load star catalog from a binary buffer, e.g. a memory-mapped file.
+     */
+    public void loadBinary(ByteBuffer buffer) {
+        try {
+            StarCatalogFormat.Columns columns = StarCatalogFormat.read(buffer);
+            setColumns(columns, columns.count);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Receives progressively larger catalogs from loadBinaryProgressive().
+     */
+    public interface BatchListener {
+        /**
+         * @param catalog  A new catalog holding the brightest stars loaded so
+         *                 far; never modified afterwards, so it can be handed
+         *                 to another thread as a whole
+         * @param complete Whether this batch holds the whole catalog
+         */
+        void onBatch(StarCatalog catalog, boolean complete);
+    }
+
+    /**
+     * Load a binary star catalog in batches, brightest stars first. Each
+     * batch is a complete StarCatalog eight times larger than the last,
+     * starting from firstBatch stars, so the brightest stars can be drawn
+     * while the rest are still being built. Runs on the calling thread and
+     * closes the stream. Catalogs not in magnitude order arrive as one batch.
+     */
+    public static void loadBinaryProgressive(InputStream is, int firstBatch, BatchListener listener) {
+        try {
+            ByteBuffer buffer = StarCatalogFormat.readFully(is);
+            is.close();
+            StarCatalogFormat.Columns columns = StarCatalogFormat.read(buffer);
+            boolean sorted = (columns.flags & StarCatalogFormat.FLAG_SORTED_BY_MAGNITUDE) != 0;
+
+            int size = sorted ? Math.min(Math.max(1, firstBatch), columns.count) : columns.count;
+            while (true) {
+                StarCatalog catalog = new StarCatalog();
+                catalog.setColumns(columns, size);
+                boolean complete = size == columns.count;
+                listener.onBatch(catalog, complete);
+                if (complete)
+                    break;
+                size = (int) Math.min(columns.count, size * 8L);
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Take the first n stars of decoded binary columns.
+     */
+    private void setColumns(StarCatalogFormat.Columns columns, int n) {
+        double[] ra = new double[n];
+        double[] dec = new double[n];
+        for (int i = 0; i < n; i++) {
+            ra[i] = columns.ra[i];
+            dec[i] = columns.dec[i];
+        }
+
+        // Only named stars get a table entry
+        List<String> names = new ArrayList<>();
+        names.add("");
+        int[] nameIdx = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (columns.nameOffsets[i + 1] > columns.nameOffsets[i]) {
+                nameIdx[i] = names.size();
+                names.add(columns.name(i));
+            }
+        }
+
+        // Unit vectors are precomputed by the catalog compiler
+        setStars(n, Arrays.copyOf(columns.magnitude, n), ra, dec, Arrays.copyOf(columns.color, n),
+                Arrays.copyOf(columns.unitVectors, 3 * n), nameIdx, names.toArray(new String[0]));
+    }
+
+    /**
+     * Install star arrays, sorting them by magnitude if needed, and rebuild
+     * the derived views and index. The arrays are owned by the catalog.
+     */
+    private void setStars(int n, float[] mag, double[] ra, double[] dec, int[] color, float[] vectors,
+            int[] nameIdx, String[] names) {
+        int[] order = magnitudeOrder(mag);
+        if (order != null) {
+            mag = permute(mag, order, 1);
+            ra = permute(ra, order);
+            dec = permute(dec, order);
+            color = permute(color, order);
+            vectors = permute(vectors, order, 3);
+            nameIdx = permute(nameIdx, order);
+        }
+
+        count = n;
+        magnitudes = mag;
+        raArray = ra;
+        decArray = dec;
+        colors = color;
+        nameIndex = nameIdx;
+        nameTable = names;
+        unitVectors = new PrecessedVectors(vectors);
+        cellIndex = new SkyCellIndex(vectors);
+        starView = new StarView(this);
+    }
+
+    /**
+     * Stable magnitude order of the stars, or null if already sorted.
+     */
+    private static int[] magnitudeOrder(float[] mag) {
+        boolean sorted = true;
+        for (int i = 1; i < mag.length && sorted; i++) {
+            sorted = mag[i] >= mag[i - 1];
+        }
+        if (sorted)
+            return null;
+
+        // Sort (magnitude, index) keys: magnitude bits made order-preserving
+        // as a signed int in the high word, index as tie-breaker in the low
+        long[] keys = new long[mag.length];
+        for (int i = 0; i < mag.length; i++) {
+            int bits = Float.floatToIntBits(mag[i]);
+            bits ^= (bits >> 31) & 0x7FFFFFFF;
+            keys[i] = ((long) bits << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[mag.length];
+        for (int i = 0; i < mag.length; i++) {
+            order[i] = (int) keys[i];
+        }
+        return order;
+    }
+
+    private static float[] permute(float[] values, int[] order, int stride) {
+        float[] out = new float[values.length];
+        for (int i = 0; i < order.length; i++) {
+            System.arraycopy(values, order[i] * stride, out, i * stride, stride);
+        }
+        return out;
+    }
+
+    private static double[] permute(double[] values, int[] order) {
+        double[] out = new double[values.length];
+        for (int i = 0; i < order.length; i++) {
+            out[i] = values[order[i]];
+        }
+        return out;
+    }
+
+    private static int[] permute(int[] values, int[] order) {
+        int[] out = new int[values.length];
+        for (int i = 0; i < order.length; i++) {
+            out[i] = values[order[i]];
+        }
+        return out;
+    }
+
+    /**
+     * Read-only CelestialBody view; each get() builds a new object from the
+     * arrays of the catalog it was created for.
+     */
+    private static final class StarView extends AbstractList<CelestialBody> implements RandomAccess {
+        private final int count;
+        private final float[] magnitudes;
+        private final double[] ra, dec;
+        private final int[] colors;
+        private final int[] nameIndex;
+        private final String[] nameTable;
+
+        StarView(StarCatalog catalog) {
+            count = catalog.count;
+            magnitudes = catalog.magnitudes;
+            ra = catalog.raArray;
+            dec = catalog.decArray;
+            colors = catalog.colors;
+            nameIndex = catalog.nameIndex;
+            nameTable = catalog.nameTable;
+        }
+
+        @Override
+        public CelestialBody get(int i) {
+            if (i < 0 || i >= count)
+                throw new IndexOutOfBoundsException("Star " + i + " of " + count);
+            CelestialBody star = new CelestialBody(nameTable[nameIndex[i]], CelestialBody.BodyType.STAR);
+            star.setRa(ra[i]);
+            star.setDec(dec[i]);
+            star.setMagnitude(magnitudes[i]);
+            star.setColor(colors[i]);
+            return star;
+        }
+
+        @Override
+        public int size() {
+            return count;
+        }
+    }
+
+    /**
+     * Get all stars in the catalog, brightest first, as a read-only view.
+     * Each element is created on access; draw loops should read the arrays.
+     */
+    public List<CelestialBody> getStars() {
+        return starView;
+    }
+
+    /**
+     * Number of stars in the catalog.
+     */
+    public int getStarCount() {
+        return count;
+    }
+
+    /**
+     * Get colors (packed ARGB) of all stars, in catalog order.
+     */
+    public int[] getColors() {
+        return colors;
+    }
+
+    /**
+     * Name of a star; empty if unnamed.
+     */
+    public String getName(int index) {
+        return nameTable[nameIndex[index]];
+    }
+
+    /**
+     * Record the constellation of every star. Call before handing the
+     * catalog to other threads, e.g. from a BatchListener.
+     */
+    public void tagConstellations(ConstellationBoundaries boundaries) {
+        float[] vectors = unitVectors.getJ2000();
+        byte[] tags = new byte[count];
+        for (int i = 0; i < count; i++) {
+            tags[i] = (byte) boundaries.find(vectors[i * 3], vectors[i * 3 + 1], vectors[i * 3 + 2]);
+        }
+        constellations = tags;
+    }
+
+    /**
+     * Constellation of each star as an index into the ConstellationBoundaries
+     * passed to tagConstellations() (-1 if outside every boundary), or null
+     * if the catalog has not been tagged.
+     */
+    public byte[] getConstellations() {
+        return constellations;
+    }
+
+    /**
+     * Get magnitudes of all stars, in catalog (ascending) order.
+     */
+    public float[] getMagnitudes() {
+        return magnitudes;
+    }
+
+    /**
+     * Number of stars with magnitude <= limit; they are the first stars of
+     * the catalog.
+     */
+    public int countBrighterThan(double limit) {
+        int low = 0, high = magnitudes.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (magnitudes[mid] <= limit) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get right ascensions of all stars in radians, in catalog order.
+     */
+    public double[] getRaArray() {
+        return raArray;
+    }
+
+    /**
+     * Get declinations of all stars in radians, in catalog order.
+     */
+    public double[] getDecArray() {
+        return decArray;
+    }
+
+    /**
+     * Get equatorial unit vectors of all stars (x, y, z interleaved),
+     * in catalog order, precessed to the last epoch passed to updateEpoch().
+     */
+    public float[] getUnitVectors() {
+        return unitVectors.get();
+    }
+
+    /**
+     * Get J2000.0 equatorial unit vectors of all stars (x, y, z interleaved),
+     * in catalog order, for callers that apply their own precession.
+     */
+    public float[] getJ2000UnitVectors() {
+        return unitVectors.getJ2000();
+    }
+
+    /**
+     * Find sky cells that may intersect every cap. Stars inside all caps are
+     * always covered, plus some from boundary cells. Within each cell, stars
+     * are brightest first (see getCellOrder()). Not thread-safe; call from
+     * the render thread.
+     *
+     * @param caps Caps in equatorial coordinates of the current epoch
+     * @param out  Receives the ranges
+     * @return Unit vectors the query was made against (as getUnitVectors())
+     */
+    public float[] queryVisible(SkyCellIndex.Cap[] caps, SkyCellIndex.Ranges out) {
+        float[] vectors = unitVectors.get(queryMatrix);
+        if (j2000Caps.length != caps.length) {
+            j2000Caps = new SkyCellIndex.Cap[caps.length];
+            for (int i = 0; i < caps.length; i++) {
+                j2000Caps[i] = new SkyCellIndex.Cap();
+            }
+        }
+
+        // The index is built in J2000.0; rotate caps back with the transpose
+        for (int i = 0; i < caps.length; i++) {
+            j2000Caps[i].setRotated(caps[i], queryMatrix);
+        }
+        cellIndex.query(j2000Caps, out);
+        return vectors;
+    }
+
+    /**
+     * Copy the precession matrix (J2000.0 -> current epoch bucket) of the
+     * vectors returned by getUnitVectors(); identity until the first update.
+     *
+     * @param out Receives the 3x3 matrix, row-major
+     */
+    public void getEpochMatrix(double[] out) {
+        unitVectors.get(out);
+    }
+
+    /**
+     * Star indices grouped by sky cell, brightest first within each cell.
+     */
+    public int[] getCellOrder() {
+        return cellIndex.getOrder();
+    }
+
+    /**
+     * Start of each sky cell's stars in getCellOrder(), plus a final end entry.
+     */
+    public int[] getCellStarts() {
+        return cellIndex.getCellStarts();
+    }
+
+    /**
+     * Precess star positions to the epoch bucket containing a time.
+     * Regeneration runs in the background; getUnitVectors() switches to the
+     * new positions once they are complete.
+     */
+    public void updateEpoch(long timeMillis) {
+        unitVectors.update(timeMillis);
+    }
+
+    /**
+     * Precess star positions to the epoch bucket containing a time on the
+     * calling thread, e.g. a loader thread before publishing the catalog.
+     */
+    public void precessNow(long timeMillis) {
+        unitVectors.precessNow(timeMillis);
+    }
+
+    /**
+     * Get bright stars only (magnitude <= threshold).
+     * Returns a view of the catalog prefix, without copying.
+     */
+    public List<CelestialBody> getBrightStars(double magnitudeThreshold) {
+        return starView.subList(0, countBrighterThan(magnitudeThreshold));
+    }
+
+    /**
+     * Parse color string to an ARGB color int.
+     */
+    private int parseColor(String colorStr) {
+        if (colorStr == null || colorStr.isEmpty()) {
+            return ArgbColor.WHITE;
+        }
+
+        try {
+            return ArgbColor.parse(colorStr);
+        } catch (Exception e) {
+            return ArgbColor.WHITE;
+        }
+    }
+
+    /**
+     * Get star color based on magnitude (fallback).
+     */
+    public static int getStarColorByMagnitude(double mag) {
+        if (mag < 0)
+            return ArgbColor.rgb(200, 220, 255); // Blue-white (very bright)
+        if (mag < 1)
+            return ArgbColor.rgb(220, 230, 255); // Blue-white
+        if (mag < 2)
+            return ArgbColor.rgb(240, 245, 255); // White
+        if (mag < 3)
+            return ArgbColor.rgb(255, 250, 240); // Yellow-white
+        if (mag < 4)
+            return ArgbColor.rgb(255, 245, 230); // Yellow
+        return ArgbColor.rgb(255, 240, 220); // Orange (dim)
+    }
+}
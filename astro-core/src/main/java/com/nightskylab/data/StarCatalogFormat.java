@@ -0,0 +1,193 @@
+package com.nightskylab.data;
+
+import com.nightskylab.astronomy.CelestialBody;
+import com.nightskylab.astronomy.Coordinates;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Compact binary star catalog.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * int      magic "NSKC"
+ * int      version
+ * int      star count n
+ * int      string table length in bytes
+ * int      flags (FLAG_SORTED_BY_MAGNITUDE)
+ * float[n]  right ascension (radians)
+ * float[n]  declination (radians)
+ * float[n]  magnitude
+ * int[n]    color (packed ARGB)
+ * float[3n] J2000.0 unit vectors (x, y, z interleaved)
+ * int[n+1]  name offsets into the string table
+ * byte[]    string table (UTF-8 names, concatenated)
+ * </pre>
+ * Every column is a fixed-width array, so a reader pulls each one out with
+ * a single bulk get from a byte array or a memory-mapped file. Unit vectors
+ * are precomputed by the writer so loading does no trigonometry.
+ */
+public final class StarCatalogFormat {
+    static final int MAGIC = 0x4E534B43; // "NSKC"
+    static final int VERSION = 2;
+    static final int HEADER_BYTES = 20;
+
+    /**
+     * Stars are stored in ascending magnitude order (brightest first).
+     */
+    public static final int FLAG_SORTED_BY_MAGNITUDE = 1;
+
+    private StarCatalogFormat() {
+    }
+
+    /**
+     * Decoded catalog columns.
+     */
+    static final class Columns {
+        int count;
+        int flags;
+        float[] ra;
+        float[] dec;
+        float[] magnitude;
+        int[] color;
+        float[] unitVectors;
+        int[] nameOffsets;
+        byte[] names;
+
+        String name(int index) {
+            int start = nameOffsets[index];
+            return new String(names, start, nameOffsets[index + 1] - start, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Write stars in the binary format, in list order. The stream is not
+     * closed. The magnitude-order flag is set when the list is sorted.
+     */
+    public static void write(List<CelestialBody> stars, OutputStream out) throws IOException {
+        int n = stars.size();
+
+        int flags = FLAG_SORTED_BY_MAGNITUDE;
+        for (int i = 1; i < n; i++) {
+            if (stars.get(i).getMagnitude() < stars.get(i - 1).getMagnitude()) {
+                flags &= ~FLAG_SORTED_BY_MAGNITUDE;
+                break;
+            }
+        }
+
+        ByteArrayOutputStream names = new ByteArrayOutputStream();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            String name = stars.get(i).getName();
+            if (name != null) {
+                byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+                names.write(bytes, 0, bytes.length);
+            }
+            offsets[i + 1] = names.size();
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(n);
+        data.writeInt(names.size());
+        data.writeInt(flags);
+        for (int i = 0; i < n; i++) {
+            data.writeFloat((float) stars.get(i).getRa());
+        }
+        for (int i = 0; i < n; i++) {
+            data.writeFloat((float) stars.get(i).getDec());
+        }
+        for (int i = 0; i < n; i++) {
+            data.writeFloat((float) stars.get(i).getMagnitude());
+        }
+        for (int i = 0; i < n; i++) {
+            data.writeInt(stars.get(i).getColor());
+        }
+        float[] vector = new float[3];
+        for (int i = 0; i < n; i++) {
+            Coordinates.equatorialToCartesian(stars.get(i).getRa(), stars.get(i).getDec(), vector, 0);
+            data.writeFloat(vector[0]);
+            data.writeFloat(vector[1]);
+            data.writeFloat(vector[2]);
+        }
+        for (int i = 0; i <= n; i++) {
+            data.writeInt(offsets[i]);
+        }
+        names.writeTo(data);
+        data.flush();
+    }
+
+    /**
+     * Decode all columns from a buffer positioned at the start of a catalog.
+     *
+     * @throws IOException if the buffer does not hold a supported catalog
+     */
+    static Columns read(ByteBuffer buffer) throws IOException {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC)
+            throw new IOException("Not a binary star catalog");
+        int version = in.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported star catalog version " + version);
+
+        Columns columns = new Columns();
+        int n = in.getInt();
+        int namesLength = in.getInt();
+        columns.flags = in.getInt();
+        if (n < 0 || namesLength < 0 || in.remaining() < 4L * (8L * n + 1) + namesLength)
+            throw new IOException("Truncated star catalog");
+
+        columns.count = n;
+        columns.ra = new float[n];
+        columns.dec = new float[n];
+        columns.magnitude = new float[n];
+        columns.color = new int[n];
+        columns.unitVectors = new float[3 * n];
+        columns.nameOffsets = new int[n + 1];
+        columns.names = new byte[namesLength];
+
+        // Bulk column reads; each view starts at the current position
+        in.asFloatBuffer().get(columns.ra);
+        in.position(in.position() + 4 * n);
+        in.asFloatBuffer().get(columns.dec);
+        in.position(in.position() + 4 * n);
+        in.asFloatBuffer().get(columns.magnitude);
+        in.position(in.position() + 4 * n);
+        in.asIntBuffer().get(columns.color);
+        in.position(in.position() + 4 * n);
+        in.asFloatBuffer().get(columns.unitVectors);
+        in.position(in.position() + 12 * n);
+        in.asIntBuffer().get(columns.nameOffsets);
+        in.position(in.position() + 4 * (n + 1));
+        in.get(columns.names);
+
+        return columns;
+    }
+
+    /**
+     * Read a whole stream into a buffer with as few reads as the stream allows.
+     */
+    static ByteBuffer readFully(InputStream is) throws IOException {
+        // One spare byte so a stream that reports its full size needs no regrowth
+        byte[] data = new byte[Math.max(is.available() + 1, 8192)];
+        int length = 0;
+        int n;
+        while ((n = is.read(data, length, data.length - length)) > 0) {
+            length += n;
+            if (length == data.length) {
+                byte[] grown = new byte[data.length * 2];
+                System.arraycopy(data, 0, grown, 0, length);
+                data = grown;
+            }
+        }
+        return ByteBuffer.wrap(data, 0, length);
+    }
+}
@@ -0,0 +1,324 @@
+package com.nightskylab.data;
+
+import com.nightskylab.astronomy.SkyCellIndex;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Deep star catalog streamed from a tiled file (see StarTileFormat).
+ *
+ * Only the directory stays resident. Each frame, update() finds the tiles in
+ * the view down to the limiting magnitude, returns those already loaded, and
+ * queues the rest for a background loader. Tiles ahead of the current pan
+ * direction and in the next magnitude band are queued as well, so they are
+ * usually resident by the time they come into view.
+ *
+ * Loaded tiles are kept in LRU order under a byte budget. Tiles used by the
+ * current frame are never evicted by loading, so the budget can be exceeded
+ * by a view that needs more; trim() evicts regardless, for memory pressure.
+ *
+ * The deep file holds only stars that are not in the resident StarCatalog;
+ * the two are drawn together.
+ */
+public class StarTileCache {
+    private static final ExecutorService LOADER = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "star-tiles");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        }
+    });
+
+    // Pan prefetch: look this many frames ahead along the view motion
+    private static final double PREFETCH_FRAMES = 15;
+
+    // Zoom prefetch: load bands starting within this many magnitudes of the limit
+    private static final double PREFETCH_MAGNITUDES = 0.5;
+
+    // Per-tile bookkeeping beyond the star columns
+    private static final int TILE_OVERHEAD_BYTES = 64;
+
+    /**
+     * One loaded tile: stars of one sky cell and magnitude band, brightest first.
+     */
+    public static final class Tile {
+        public final int count;
+        public final float[] magnitudes;
+        public final int[] colors;
+        public final float[] unitVectors; // J2000.0, x, y, z interleaved
+        final long bytes;
+        volatile long lastFrame;
+
+        Tile(int count) {
+            this.count = count;
+            this.magnitudes = new float[count];
+            this.colors = new int[count];
+            this.unitVectors = new float[3 * count];
+            this.bytes = (long) StarTileFormat.STAR_BYTES * count + TILE_OVERHEAD_BYTES;
+        }
+    }
+
+    private final RandomAccessFile file;
+    private final FileChannel channel;
+    private final StarTileFormat.Directory directory;
+    private final SkyCellIndex cells;
+
+    // Guarded by this
+    private final LinkedHashMap<Integer, Tile> resident = new LinkedHashMap<>(64, 0.75f, true);
+    private final Set<Integer> pending = new HashSet<>();
+    private long residentBytes;
+    private long byteBudget;
+    private boolean closed;
+
+    // Render-thread state (frame is also read by the loader)
+    private volatile long frame;
+    private final SkyCellIndex.Ranges ranges = new SkyCellIndex.Ranges();
+    private final SkyCellIndex.Cap[] prefetchCap = { new SkyCellIndex.Cap() };
+    private boolean hasLastView;
+    private double lastViewX, lastViewY, lastViewZ;
+
+    private StarTileCache(RandomAccessFile file, StarTileFormat.Directory directory, long byteBudget) {
+        this.file = file;
+        this.channel = file.getChannel();
+        this.directory = directory;
+        this.cells = new SkyCellIndex(new float[0], directory.level);
+        this.byteBudget = byteBudget;
+    }
+
+    /**
+     * Open a tiled catalog and read its directory.
+     *
+     * @param byteBudget Bytes of tile data to keep resident
+     */
+    public static StarTileCache open(File path, long byteBudget) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "r");
+        try {
+            ByteBuffer header = ByteBuffer.allocate(StarTileFormat.HEADER_BYTES);
+            readFully(file.getChannel(), header, 0);
+            int tileCount = StarTileFormat.readTileCount(header);
+            int bandCount = header.getInt(12);
+
+            ByteBuffer buffer = ByteBuffer.allocate(StarTileFormat.Directory.size(bandCount, tileCount));
+            readFully(file.getChannel(), buffer, 0);
+            return new StarTileCache(file, StarTileFormat.readDirectory(buffer), byteBudget);
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Collect resident tiles for the current view and queue missing ones.
+     * Call once per frame from the render thread.
+     *
+     * @param caps    Visible region in J2000.0; caps[0] is the view cap,
+     *                whose motion between frames drives pan prefetch
+     * @param limitingMagnitude Faintest magnitude drawn
+     * @param visible Cleared, then receives resident tiles in view
+     */
+    public void update(SkyCellIndex.Cap[] caps, double limitingMagnitude, List<Tile> visible) {
+        visible.clear();
+        frame++;
+
+        cells.query(caps, ranges);
+        for (int r = 0; r < ranges.size(); r++) {
+            for (int cell = ranges.start(r); cell < ranges.end(r); cell++) {
+                requestCell(cell, limitingMagnitude, visible);
+            }
+        }
+
+        // Zoom prefetch: the next band down in the same cells
+        for (int r = 0; r < ranges.size(); r++) {
+            for (int cell = ranges.start(r); cell < ranges.end(r); cell++) {
+                requestCell(cell, limitingMagnitude + PREFETCH_MAGNITUDES, null);
+            }
+        }
+
+        // Pan prefetch: the view cap extrapolated along its motion
+        SkyCellIndex.Cap view = caps[0];
+        if (hasLastView) {
+            double dx = view.getX() - lastViewX, dy = view.getY() - lastViewY, dz = view.getZ() - lastViewZ;
+            if (dx * dx + dy * dy + dz * dz > 1e-12) {
+                double ax = view.getX() + dx * PREFETCH_FRAMES;
+                double ay = view.getY() + dy * PREFETCH_FRAMES;
+                double az = view.getZ() + dz * PREFETCH_FRAMES;
+                double norm = Math.sqrt(ax * ax + ay * ay + az * az);
+                prefetchCap[0].set(ax / norm, ay / norm, az / norm, view.getRadius());
+                cells.query(prefetchCap, ranges);
+                for (int r = 0; r < ranges.size(); r++) {
+                    for (int cell = ranges.start(r); cell < ranges.end(r); cell++) {
+                        requestCell(cell, limitingMagnitude, null);
+                    }
+                }
+            }
+        }
+        lastViewX = view.getX();
+        lastViewY = view.getY();
+        lastViewZ = view.getZ();
+        hasLastView = true;
+    }
+
+    /**
+     * Use or queue the bands of a cell that start at or below a magnitude.
+     *
+     * @param visible Receives resident tiles, or null to only queue
+     */
+    private void requestCell(int cell, double limitingMagnitude, List<Tile> visible) {
+        int bandCount = directory.bandCount();
+        for (int band = 0; band < bandCount; band++) {
+            if (band > 0 && directory.bandLimits[band - 1] >= limitingMagnitude)
+                break; // Every star in this band is too faint
+            int key = cell * bandCount + band;
+            if (directory.counts[key] == 0)
+                continue;
+
+            Tile tile;
+            synchronized (this) {
+                tile = resident.get(key); // Also refreshes LRU order
+                if (tile == null) {
+                    schedule(key);
+                }
+            }
+            if (tile != null && visible != null) {
+                tile.lastFrame = frame;
+                visible.add(tile);
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void schedule(final int key) {
+        if (closed || !pending.add(key))
+            return;
+        final long usedFrame = frame;
+        LOADER.execute(new Runnable() {
+            @Override
+            public void run() {
+                Tile tile = null;
+                try {
+                    tile = load(key);
+                } catch (IOException e) {
+                    if (!isClosed()) {
+                        e.printStackTrace();
+                    }
+                }
+                publish(key, tile, usedFrame);
+            }
+        });
+    }
+
+    private Tile load(int key) throws IOException {
+        int count = directory.counts[key];
+        ByteBuffer buffer = ByteBuffer.allocate(StarTileFormat.STAR_BYTES * count);
+        readFully(channel, buffer, directory.offsets[key]);
+
+        Tile tile = new Tile(count);
+        StarTileFormat.readTile(buffer, count, tile.magnitudes, tile.colors, tile.unitVectors);
+        return tile;
+    }
+
+    private synchronized void publish(int key, Tile tile, long usedFrame) {
+        pending.remove(key);
+        if (tile == null || closed)
+            return;
+        tile.lastFrame = usedFrame;
+        resident.put(key, tile);
+        residentBytes += tile.bytes;
+        evict(byteBudget, frame);
+    }
+
+    /**
+     * Evict least recently used tiles until within a byte count, keeping
+     * tiles used by a frame.
+     *
+     * @param keepFrame Tiles used by this frame are kept (-1 keeps none)
+     */
+    private synchronized void evict(long bytes, long keepFrame) {
+        Iterator<Map.Entry<Integer, Tile>> it = resident.entrySet().iterator();
+        while (residentBytes > bytes && it.hasNext()) {
+            Tile tile = it.next().getValue();
+            if (tile.lastFrame == keepFrame)
+                continue;
+            it.remove();
+            residentBytes -= tile.bytes;
+        }
+    }
+
+    /**
+     * Evict least recently used tiles down to a byte count, including tiles
+     * in view; use under memory pressure. Evicted tiles reload on demand.
+     */
+    public void trim(long bytes) {
+        evict(Math.max(0, bytes), -1);
+    }
+
+    /**
+     * Set the resident byte budget, evicting down to it if needed.
+     */
+    public synchronized void setByteBudget(long byteBudget) {
+        this.byteBudget = byteBudget;
+        evict(byteBudget, frame);
+    }
+
+    public synchronized long getByteBudget() {
+        return byteBudget;
+    }
+
+    public synchronized long getResidentBytes() {
+        return residentBytes;
+    }
+
+    public synchronized int getResidentTileCount() {
+        return resident.size();
+    }
+
+    /**
+     * Tiles queued or being read.
+     */
+    public synchronized int getPendingTileCount() {
+        return pending.size();
+    }
+
+    /**
+     * Release all tiles and close the file. Queued loads are dropped.
+     */
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            resident.clear();
+            residentBytes = 0;
+        }
+        try {
+            file.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private synchronized boolean isClosed() {
+        return closed;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int n = channel.read(buffer, position + buffer.position());
+            if (n < 0)
+                throw new IOException("Truncated tiled star catalog");
+        }
+        buffer.flip();
+    }
+}
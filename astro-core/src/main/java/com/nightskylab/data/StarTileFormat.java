@@ -0,0 +1,208 @@
+package com.nightskylab.data;
+
+import com.nightskylab.astronomy.CelestialBody;
+import com.nightskylab.astronomy.Coordinates;
+import com.nightskylab.astronomy.SkyCellIndex;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tiled binary star catalog for deep catalogs streamed from disk.
+ *
+ * Stars are split into tiles by sky cell (SkyCellIndex leaf at a fixed
+ * level) and magnitude band, so a reader loads only the tiles in view and
+ * down to the current limiting magnitude. Tile t = cell * bandCount + band.
+ *
+ * Layout (big-endian):
+ * <pre>
+ * int           magic "NSKT"
+ * int           version
+ * int           cell level
+ * int           band count b
+ * int           tile count t (6 * 4^level * b)
+ * float[b]      band upper magnitude limits (ascending)
+ * long[t]       tile offsets from the start of the file
+ * int[t]        tile star counts
+ * tiles, each with n stars in ascending magnitude order:
+ *   float[n]    magnitude
+ *   int[n]      color (packed ARGB)
+ *   float[3n]   J2000.0 unit vectors (x, y, z interleaved)
+ * </pre>
+ * Names and RA/Dec are left out: deep tiles only draw points. Each tile is
+ * one positional read followed by bulk column gets.
+ */
+public final class StarTileFormat {
+    static final int MAGIC = 0x4E534B54; // "NSKT"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 20;
+
+    /**
+     * Bytes per star in a tile.
+     */
+    static final int STAR_BYTES = 20;
+
+    private StarTileFormat() {
+    }
+
+    /**
+     * Decoded header and tile directory.
+     */
+    static final class Directory {
+        int level;
+        float[] bandLimits;
+        long[] offsets;
+        int[] counts;
+
+        int bandCount() {
+            return bandLimits.length;
+        }
+
+        /**
+         * Bytes of the directory: header, band limits, offsets and counts.
+         */
+        static int size(int bandCount, int tileCount) {
+            return HEADER_BYTES + 4 * bandCount + 12 * tileCount;
+        }
+    }
+
+    /**
+     * Write stars as tiles. The stream is not closed.
+     *
+     * @param level      SkyCellIndex level of the tiles (3 gives 384 cells of about 10 degrees)
+     * @param bandLimits Ascending upper magnitude limit of each band; stars
+     *                   fainter than the last limit go in the last band
+     */
+    public static void write(List<CelestialBody> stars, int level, float[] bandLimits, OutputStream out)
+            throws IOException {
+        SkyCellIndex cells = new SkyCellIndex(new float[0], level);
+        int bandCount = bandLimits.length;
+        int tileCount = cells.getCellCount() * bandCount;
+
+        // Magnitude order within each tile; stable for equal magnitudes
+        List<CelestialBody> sorted = new ArrayList<>(stars);
+        Collections.sort(sorted, new Comparator<CelestialBody>() {
+            @Override
+            public int compare(CelestialBody a, CelestialBody b) {
+                return Double.compare(a.getMagnitude(), b.getMagnitude());
+            }
+        });
+
+        List<List<CelestialBody>> tiles = new ArrayList<>(tileCount);
+        for (int t = 0; t < tileCount; t++) {
+            tiles.add(new ArrayList<CelestialBody>());
+        }
+        float[] vector = new float[3];
+        for (CelestialBody star : sorted) {
+            Coordinates.equatorialToCartesian(star.getRa(), star.getDec(), vector, 0);
+            int band = 0;
+            while (band < bandCount - 1 && star.getMagnitude() > bandLimits[band]) {
+                band++;
+            }
+            tiles.get(cells.cellOf(vector[0], vector[1], vector[2]) * bandCount + band).add(star);
+        }
+
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(level);
+        data.writeInt(bandCount);
+        data.writeInt(tileCount);
+        for (float limit : bandLimits) {
+            data.writeFloat(limit);
+        }
+        long offset = Directory.size(bandCount, tileCount);
+        for (List<CelestialBody> tile : tiles) {
+            data.writeLong(offset);
+            offset += (long) STAR_BYTES * tile.size();
+        }
+        for (List<CelestialBody> tile : tiles) {
+            data.writeInt(tile.size());
+        }
+
+        for (List<CelestialBody> tile : tiles) {
+            for (CelestialBody star : tile) {
+                data.writeFloat((float) star.getMagnitude());
+            }
+            for (CelestialBody star : tile) {
+                data.writeInt(star.getColor());
+            }
+            for (CelestialBody star : tile) {
+                Coordinates.equatorialToCartesian(star.getRa(), star.getDec(), vector, 0);
+                data.writeFloat(vector[0]);
+                data.writeFloat(vector[1]);
+                data.writeFloat(vector[2]);
+            }
+        }
+        data.flush();
+    }
+
+    /**
+     * Read the number of tiles from the fixed-size header.
+     *
+     * @throws IOException if the buffer does not hold a supported tile catalog
+     */
+    static int readTileCount(ByteBuffer header) throws IOException {
+        ByteBuffer in = header.duplicate().order(ByteOrder.BIG_ENDIAN);
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC)
+            throw new IOException("Not a tiled star catalog");
+        int version = in.getInt();
+        if (version != VERSION)
+            throw new IOException("Unsupported tiled star catalog version " + version);
+        int level = in.getInt();
+        int bandCount = in.getInt();
+        int tileCount = in.getInt();
+        if (level < 0 || level > SkyCellIndex.MAX_LEVEL || bandCount < 1
+                || tileCount != (6 << (2 * level)) * bandCount)
+            throw new IOException("Corrupt tiled star catalog header");
+        return tileCount;
+    }
+
+    /**
+     * Decode the header and tile directory.
+     *
+     * @param buffer At least Directory.size() bytes from the start of the file
+     */
+    static Directory readDirectory(ByteBuffer buffer) throws IOException {
+        int tileCount = readTileCount(buffer);
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        in.position(in.position() + 8);
+
+        Directory directory = new Directory();
+        directory.level = in.getInt();
+        int bandCount = in.getInt();
+        in.getInt(); // Tile count, checked above
+        if (in.remaining() < Directory.size(bandCount, tileCount) - HEADER_BYTES)
+            throw new IOException("Truncated tiled star catalog directory");
+
+        directory.bandLimits = new float[bandCount];
+        directory.offsets = new long[tileCount];
+        directory.counts = new int[tileCount];
+        in.asFloatBuffer().get(directory.bandLimits);
+        in.position(in.position() + 4 * bandCount);
+        in.asLongBuffer().get(directory.offsets);
+        in.position(in.position() + 8 * tileCount);
+        in.asIntBuffer().get(directory.counts);
+        return directory;
+    }
+
+    /**
+     * Decode one tile's columns.
+     *
+     * @param buffer Exactly the tile's bytes
+     */
+    static void readTile(ByteBuffer buffer, int count, float[] magnitudes, int[] colors, float[] unitVectors) {
+        ByteBuffer in = buffer.duplicate().order(ByteOrder.BIG_ENDIAN);
+        in.asFloatBuffer().get(magnitudes, 0, count);
+        in.position(in.position() + 4 * count);
+        in.asIntBuffer().get(colors, 0, count);
+        in.position(in.position() + 4 * count);
+        in.asFloatBuffer().get(unitVectors, 0, 3 * count);
+    }
+}
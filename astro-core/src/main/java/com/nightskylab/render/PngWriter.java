@@ -0,0 +1,131 @@
+package com.nightskylab.render;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Minimal PNG encoder for SkyRaster (8-bit RGB, no filtering).
+ * Keeps its deflater and buffers between images, so one writer per thread
+ * encodes a stream of charts without reallocating. Not thread-safe.
+ */
+public class PngWriter {
+    private static final byte[] SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n' };
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final Buffer compressed = new Buffer();
+    private final byte[] deflateBuffer = new byte[1 << 16];
+    private final byte[] header = new byte[13];
+    private final byte[] word = new byte[4];
+    private byte[] row = new byte[0];
+
+    public PngWriter() {
+        this(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param level Deflate level, 0-9 or Deflater.DEFAULT_COMPRESSION
+     */
+    public PngWriter(int level) {
+        deflater = new Deflater(level);
+    }
+
+    /**
+     * Encode a raster as PNG. Alpha is dropped; the output stream is not closed.
+     */
+    public void write(SkyRaster raster, OutputStream out) throws IOException {
+        int width = raster.getWidth();
+        int height = raster.getHeight();
+        int[] pixels = raster.getPixels();
+
+        int rowLength = 1 + width * 3;
+        if (row.length != rowLength)
+            row = new byte[rowLength];
+
+        // Image data: filter byte 0 then RGB per pixel, deflated row by row
+        compressed.reset();
+        deflater.reset();
+        for (int y = 0; y < height; y++) {
+            row[0] = 0;
+            int p = y * width;
+            for (int x = 0, i = 1; x < width; x++, i += 3) {
+                int c = pixels[p + x];
+                row[i] = (byte) (c >> 16);
+                row[i + 1] = (byte) (c >> 8);
+                row[i + 2] = (byte) c;
+            }
+            deflater.setInput(row, 0, rowLength);
+            drain(false);
+        }
+        deflater.finish();
+        drain(true);
+
+        out.write(SIGNATURE);
+
+        writeInt(header, 0, width);
+        writeInt(header, 4, height);
+        header[8] = 8; // bit depth
+        header[9] = 2; // color type: RGB
+        header[10] = 0; // compression
+        header[11] = 0; // filter
+        header[12] = 0; // interlace
+        writeChunk(out, "IHDR", header, header.length);
+
+        writeChunk(out, "IDAT", compressed.array(), compressed.size());
+        writeChunk(out, "IEND", header, 0);
+    }
+
+    /**
+     * Release the native deflater.
+     */
+    public void close() {
+        deflater.end();
+    }
+
+    private void drain(boolean finishing) {
+        while (finishing ? !deflater.finished() : !deflater.needsInput()) {
+            int n = deflater.deflate(deflateBuffer);
+            compressed.write(deflateBuffer, 0, n);
+        }
+    }
+
+    private void writeChunk(OutputStream out, String type, byte[] data, int length) throws IOException {
+        writeInt(word, 0, length);
+        out.write(word);
+
+        for (int i = 0; i < 4; i++) {
+            word[i] = (byte) type.charAt(i);
+        }
+        crc.reset();
+        crc.update(word, 0, 4);
+        crc.update(data, 0, length);
+        out.write(word);
+        out.write(data, 0, length);
+
+        writeInt(word, 0, (int) crc.getValue());
+        out.write(word);
+    }
+
+    private static void writeInt(byte[] b, int offset, int value) {
+        b[offset] = (byte) (value >>> 24);
+        b[offset + 1] = (byte) (value >>> 16);
+        b[offset + 2] = (byte) (value >>> 8);
+        b[offset + 3] = (byte) value;
+    }
+
+    /**
+     * Growable byte buffer whose backing array can be read without copying.
+     */
+    private static final class Buffer extends ByteArrayOutputStream {
+        Buffer() {
+            super(1 << 16);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,385 @@
+package com.nightskylab.render;
+
+import com.nightskylab.astronomy.ArgbColor;
+import com.nightskylab.astronomy.CelestialBody;
+import com.nightskylab.astronomy.Coordinates;
+import com.nightskylab.astronomy.EphemerisSnapshot;
+import com.nightskylab.astronomy.Precession;
+import com.nightskylab.astronomy.SkyProjection;
+import com.nightskylab.data.ConstellationData;
+import com.nightskylab.data.StarCatalog;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless sky chart renderer.
+ *
+ * Draws the same globe as SkyView (sky disc, horizon, constellation lines,
+ * stars, planets, Sun and Moon) into a SkyRaster using the shared
+ * SkyProjection and catalog code. Labels are not drawn.
+ *
+ * Catalogs are shared read-only between threads; everything a render
+ * writes lives in a per-thread Workspace, so renderAll() scales across
+ * cores without locking.
+ */
+public class SkyChartRenderer {
+    // Colors matching SkyView
+    private static final int BACKGROUND_COLOR = ArgbColor.parse("#06060C");
+    private static final int SKY_COLOR = ArgbColor.parse("#000000");
+    private static final int HORIZON_COLOR = ArgbColor.parse("#00AAAA");
+    private static final int LINE_COLOR = ArgbColor.parse("#004488");
+
+    // SkyView body radii are tuned for a globe of about this many pixels
+    private static final float REFERENCE_GLOBE_RADIUS = 500f;
+
+    /**
+     * One chart: observer location and instant.
+     */
+    public static class Job {
+        public final double latitude; // degrees
+        public final double longitude; // degrees, East positive
+        public final long timeMillis;
+
+        public Job(double latitude, double longitude, long timeMillis) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.timeMillis = timeMillis;
+        }
+    }
+
+    /**
+     * Receives each finished chart on the worker thread that rendered it.
+     * The workspace raster is reused for that thread's next job once this
+     * returns.
+     */
+    public interface Output {
+        void accept(Job job, Workspace workspace) throws IOException;
+    }
+
+    /**
+     * Per-thread buffers: raster, projection, ephemeris and precessed stars.
+     */
+    public static final class Workspace {
+        final SkyRaster raster;
+        final SkyProjection projection = new SkyProjection();
+        final EphemerisSnapshot ephemeris = new EphemerisSnapshot();
+        final float[] point = new float[2];
+        final float[] segment = new float[4];
+
+        // Stars precessed to precessionBucket
+        final float[] stars;
+        final double[] precession = new double[9];
+        long precessionBucket = Long.MIN_VALUE;
+
+        // PNG encoder for Output implementations that write files
+        final PngWriter png = new PngWriter();
+
+        // Constellation vertices projected for the current chart
+        final float[] vertexScreen;
+        final boolean[] vertexVisible;
+
+        Workspace(int size, int starCount, int vertexCount) {
+            raster = new SkyRaster(size, size);
+            stars = new float[starCount * 3];
+            vertexScreen = new float[vertexCount * 2];
+            vertexVisible = new boolean[vertexCount];
+            projection.setScreen(size / 2f, size / 2f, size * 0.48f);
+        }
+
+        public SkyRaster getRaster() {
+            return raster;
+        }
+
+        public PngWriter getPngWriter() {
+            return png;
+        }
+    }
+
+    private final StarCatalog starCatalog;
+    private final ConstellationData constellationData;
+    private final int size;
+
+    // View; defaults give a full-hemisphere chart centered on the zenith, south down
+    private double viewAzimuth = 0;
+    private double viewAltitude = Math.PI / 2;
+    private double fovScale = 1.1;
+
+    /**
+     * @param size Chart width and height in pixels
+     */
+    public SkyChartRenderer(StarCatalog starCatalog, ConstellationData constellationData, int size) {
+        this.starCatalog = starCatalog;
+        this.constellationData = constellationData;
+        this.size = size;
+    }
+
+    /**
+     * Set view center and zoom, as in SkyView.
+     */
+    public void setView(double viewAzimuth, double viewAltitude, double fovScale) {
+        this.viewAzimuth = viewAzimuth;
+        this.viewAltitude = viewAltitude;
+        this.fovScale = fovScale;
+    }
+
+    /**
+     * Create buffers for one rendering thread.
+     */
+    public Workspace newWorkspace() {
+        return new Workspace(size, starCatalog.getStarCount(),
+                constellationData.getJ2000Vertices().length / 3);
+    }
+
+    /**
+     * Render one chart into the workspace raster.
+     */
+    public SkyRaster render(Job job, Workspace ws) {
+        SkyRaster raster = ws.raster;
+        SkyProjection projection = ws.projection;
+
+        double latRad = Math.toRadians(job.latitude);
+        double lst = Coordinates.calculateLST(job.timeMillis, job.longitude);
+        projection.setOrientation(lst, latRad, viewAzimuth, viewAltitude, fovScale);
+
+        long bucket = Precession.bucket(job.timeMillis);
+        if (bucket != ws.precessionBucket) {
+            Precession.matrixForBucket(bucket, ws.precession);
+            precessStars(ws);
+            ws.precessionBucket = bucket;
+        }
+        ws.ephemeris.update(job.timeMillis);
+
+        float half = size / 2f;
+        float globeRadius = size * 0.48f;
+        float radiusScale = globeRadius / REFERENCE_GLOBE_RADIUS;
+
+        raster.clear(BACKGROUND_COLOR);
+        raster.fillCircle(half, half, globeRadius, SKY_COLOR);
+
+        drawHorizon(ws);
+        drawConstellations(ws);
+        drawStars(ws, radiusScale);
+
+        EphemerisSnapshot ephemeris = ws.ephemeris;
+        for (int i = 0; i < ephemeris.getPlanetCount(); i++) {
+            drawBody(ws, ephemeris.getPlanet(i), radiusScale);
+        }
+        drawBody(ws, ephemeris.getSun(), radiusScale);
+        drawBody(ws, ephemeris.getMoon(), radiusScale);
+
+        return raster;
+    }
+
+    /**
+     * Render all jobs on all available cores.
+     */
+    public void renderAll(List<Job> jobs, Output output) throws IOException, InterruptedException {
+        renderAll(jobs, Runtime.getRuntime().availableProcessors(), output);
+    }
+
+    /**
+     * Render jobs in parallel. Each thread takes the next unrendered job,
+     * renders it into its own workspace and hands it to the output.
+     *
+     * @throws IOException if the output fails for any job
+     */
+    public void renderAll(final List<Job> jobs, int threads, final Output output)
+            throws IOException, InterruptedException {
+        final AtomicInteger next = new AtomicInteger();
+        int workers = Math.max(1, Math.min(threads, jobs.size()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(workers, new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "sky-render-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int w = 0; w < workers; w++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws IOException {
+                        Workspace ws = newWorkspace();
+                        try {
+                            int i;
+                            while ((i = next.getAndIncrement()) < jobs.size()) {
+                                Job job = jobs.get(i);
+                                render(job, ws);
+                                output.accept(job, ws);
+                            }
+                        } finally {
+                            ws.png.close();
+                        }
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    // Stop handing out jobs to the remaining workers
+                    next.set(jobs.size());
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException)
+                        throw (IOException) cause;
+                    if (cause instanceof RuntimeException)
+                        throw (RuntimeException) cause;
+                    throw new IllegalStateException(cause);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void precessStars(Workspace ws) {
+        float[] j2000 = starCatalog.getJ2000UnitVectors();
+        double[] m = ws.precession;
+        float[] out = ws.stars;
+        int n = Math.min(j2000.length, out.length);
+        for (int i = 0; i + 2 < n; i += 3) {
+            double x = j2000[i], y = j2000[i + 1], z = j2000[i + 2];
+            out[i] = (float) (m[0] * x + m[1] * y + m[2] * z);
+            out[i + 1] = (float) (m[3] * x + m[4] * y + m[5] * z);
+            out[i + 2] = (float) (m[6] * x + m[7] * y + m[8] * z);
+        }
+    }
+
+    /**
+     * Horizon at 0 degrees, clipped to the globe edge. The view center of a
+     * zenith chart is held ~1.1 degrees off the zenith, so part of the ring
+     * lies past the projection's hemisphere cutoff while still inside the
+     * globe; it is projected unclipped and each segment cut at the edge.
+     */
+    private void drawHorizon(Workspace ws) {
+        float[] p = ws.point;
+        float[] segment = ws.segment;
+        float center = size / 2f;
+        float clipRadius = ws.projection.getClipRadius();
+        boolean havePrevious = false;
+        float px = 0, py = 0;
+        for (int az = 0; az <= 360; az += 2) {
+            if (ws.projection.projectHorizontalUnclipped(Math.toRadians(az), 0, p)) {
+                if (havePrevious && clipToCircle(px, py, p[0], p[1], center, center, clipRadius, segment))
+                    ws.raster.drawLine(segment[0], segment[1], segment[2], segment[3], HORIZON_COLOR);
+                px = p[0];
+                py = p[1];
+                havePrevious = true;
+            } else {
+                havePrevious = false;
+            }
+        }
+    }
+
+    /**
+     * Part of the segment (x0, y0)-(x1, y1) inside a circle.
+     *
+     * @param out Receives the clipped endpoints x0, y0, x1, y1
+     * @return false if no part of the segment is inside
+     */
+    static boolean clipToCircle(float x0, float y0, float x1, float y1, float cx, float cy, float radius,
+            float[] out) {
+        double dx = x1 - x0, dy = y1 - y0;
+        double ox = x0 - cx, oy = y0 - cy;
+        double a = dx * dx + dy * dy;
+        double b = dx * ox + dy * oy;
+        double c = ox * ox + oy * oy - (double) radius * radius;
+        double discriminant = b * b - a * c;
+        if (a == 0 || discriminant <= 0)
+            return false;
+
+        double root = Math.sqrt(discriminant);
+        double t0 = Math.max(0, (-b - root) / a);
+        double t1 = Math.min(1, (-b + root) / a);
+        if (t0 >= t1)
+            return false;
+
+        out[0] = (float) (x0 + t0 * dx);
+        out[1] = (float) (y0 + t0 * dy);
+        out[2] = (float) (x0 + t1 * dx);
+        out[3] = (float) (y0 + t1 * dy);
+        return true;
+    }
+
+    private void drawConstellations(Workspace ws) {
+        double[] m = ws.precession;
+        float[] p = ws.point;
+        float[] vertices = constellationData.getJ2000Vertices();
+        int[] lineVertices = constellationData.getLineVertices();
+        int[] lineStarts = constellationData.getLineStarts();
+        float[] screen = ws.vertexScreen;
+        boolean[] visible = ws.vertexVisible;
+        int vertexCount = Math.min(vertices.length / 3, visible.length);
+
+        // Project each shared vertex once
+        for (int i = 0; i < vertexCount; i++) {
+            float vx = vertices[i * 3], vy = vertices[i * 3 + 1], vz = vertices[i * 3 + 2];
+            double x = m[0] * vx + m[1] * vy + m[2] * vz;
+            double y = m[3] * vx + m[4] * vy + m[5] * vz;
+            double z = m[6] * vx + m[7] * vy + m[8] * vz;
+            visible[i] = ws.projection.project(x, y, z, p);
+            screen[i * 2] = p[0];
+            screen[i * 2 + 1] = p[1];
+        }
+
+        for (int l = 0; l + 1 < lineStarts.length; l++) {
+            int previous = -1;
+            for (int k = lineStarts[l]; k < lineStarts[l + 1]; k++) {
+                int v = lineVertices[k];
+                if (v >= vertexCount || !visible[v]) {
+                    previous = -1;
+                    continue;
+                }
+                if (previous >= 0)
+                    ws.raster.drawLine(screen[previous * 2], screen[previous * 2 + 1], screen[v * 2],
+                            screen[v * 2 + 1], LINE_COLOR);
+                previous = v;
+            }
+        }
+    }
+
+    private void drawStars(Workspace ws, float radiusScale) {
+        float[] magnitudes = starCatalog.getMagnitudes();
+        int[] colors = starCatalog.getColors();
+        float[] vectors = ws.stars;
+        float[] p = ws.point;
+        int count = Math.min(starCatalog.getStarCount(), vectors.length / 3);
+
+        for (int i = 0; i < count; i++) {
+            float x = vectors[i * 3];
+            float y = vectors[i * 3 + 1];
+            float z = vectors[i * 3 + 2];
+
+            if (ws.projection.sinAltitude(x, y, z) > 0 && ws.projection.project(x, y, z, p)) {
+                ws.raster.fillCircle(p[0], p[1],
+                        CelestialBody.getStarRenderRadius(magnitudes[i]) * radiusScale, colors[i]);
+            }
+        }
+    }
+
+    private void drawBody(Workspace ws, CelestialBody body, float radiusScale) {
+        double x = Math.cos(body.getDec()) * Math.cos(body.getRa());
+        double y = Math.cos(body.getDec()) * Math.sin(body.getRa());
+        double z = Math.sin(body.getDec());
+
+        if (ws.projection.sinAltitude(x, y, z) > 0 && ws.projection.project(x, y, z, ws.point)) {
+            ws.raster.fillCircle(ws.point[0], ws.point[1], body.getRenderRadius() * radiusScale, body.getColor());
+        }
+    }
+}
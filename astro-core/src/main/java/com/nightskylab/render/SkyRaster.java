@@ -0,0 +1,110 @@
+package com.nightskylab.render;
+
+import java.util.Arrays;
+
+/**
+ * Plain ARGB raster for headless rendering.
+ * Pixels are packed like android.graphics.Color ints, row-major.
+ * Drawing uses source-over blending with simple edge coverage.
+ */
+public class SkyRaster {
+    private final int width;
+    private final int height;
+    private final int[] pixels;
+
+    public SkyRaster(int width, int height) {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Invalid raster size: " + width + "x" + height);
+        this.width = width;
+        this.height = height;
+        this.pixels = new int[width * height];
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Backing pixel array, row-major ARGB.
+     */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    public void clear(int argb) {
+        Arrays.fill(pixels, argb);
+    }
+
+    /**
+     * Blend a color into one pixel, scaling its alpha by coverage (0-1).
+     */
+    public void blendPixel(int x, int y, int argb, float coverage) {
+        if (x < 0 || y < 0 || x >= width || y >= height || coverage <= 0)
+            return;
+
+        float a = (argb >>> 24) / 255f * Math.min(1f, coverage);
+        int index = y * width + x;
+        int dst = pixels[index];
+        float inv = 1f - a;
+
+        int r = (int) (((argb >> 16) & 0xFF) * a + ((dst >> 16) & 0xFF) * inv + 0.5f);
+        int g = (int) (((argb >> 8) & 0xFF) * a + ((dst >> 8) & 0xFF) * inv + 0.5f);
+        int b = (int) ((argb & 0xFF) * a + (dst & 0xFF) * inv + 0.5f);
+        int outA = (int) (255 * a + (dst >>> 24) * inv + 0.5f);
+
+        pixels[index] = (outA << 24) | (r << 16) | (g << 8) | b;
+    }
+
+    /**
+     * Filled circle with one pixel of edge antialiasing.
+     * Circles smaller than a pixel are drawn as a single dimmed pixel.
+     */
+    public void fillCircle(float cx, float cy, float radius, int argb) {
+        if (radius < 0.5f) {
+            blendPixel((int) cx, (int) cy, argb, radius * 2);
+            return;
+        }
+
+        int x0 = Math.max(0, (int) Math.floor(cx - radius - 0.5f));
+        int x1 = Math.min(width - 1, (int) Math.ceil(cx + radius + 0.5f));
+        int y0 = Math.max(0, (int) Math.floor(cy - radius - 0.5f));
+        int y1 = Math.min(height - 1, (int) Math.ceil(cy + radius + 0.5f));
+
+        for (int y = y0; y <= y1; y++) {
+            float dy = y + 0.5f - cy;
+            for (int x = x0; x <= x1; x++) {
+                float dx = x + 0.5f - cx;
+                float coverage = radius + 0.5f - (float) Math.sqrt(dx * dx + dy * dy);
+                if (coverage > 0)
+                    blendPixel(x, y, argb, coverage);
+            }
+        }
+    }
+
+    /**
+     * One-pixel line, stepped along its major axis.
+     */
+    public void drawLine(float x0, float y0, float x1, float y1, int argb) {
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        int steps = (int) Math.ceil(Math.max(Math.abs(dx), Math.abs(dy)));
+        if (steps == 0) {
+            blendPixel((int) x0, (int) y0, argb, 1f);
+            return;
+        }
+
+        float sx = dx / steps;
+        float sy = dy / steps;
+        float x = x0;
+        float y = y0;
+        for (int i = 0; i <= steps; i++) {
+            blendPixel((int) x, (int) y, argb, 1f);
+            x += sx;
+            y += sy;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.nightskylab.astronomy;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Date;
+import java.util.Random;
+import org.junit.Test;
+
+public class AstronomyEngineTest {
+    // 2000-01-01 to 2050-01-01 UTC
+    private static final long START_MILLIS = 946684800000L;
+    private static final long RANGE_MILLIS = 2524608000000L - START_MILLIS;
+
+    // Long enough for calculateSeries to split across the fork/join pool
+    private static final int COUNT = 2 * AstronomyEngine.SERIES_SPLIT_THRESHOLD + 123;
+
+    @Test
+    public void seriesMatchesScalarBitForBit() {
+        Random random = new Random(6);
+        long[] times = new long[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            times[i] = START_MILLIS + (long) (random.nextDouble() * RANGE_MILLIS);
+        }
+
+        check("Sun", times);
+        check("Moon", times);
+        for (String name : AstronomyEngine.PLANET_NAMES) {
+            check(name, times);
+        }
+    }
+
+    private static void check(String name, long[] times) {
+        double[] ra = new double[times.length];
+        double[] dec = new double[times.length];
+        AstronomyEngine.calculateSeries(name, times, ra, dec);
+
+        for (int i = 0; i < times.length; i++) {
+            Date date = new Date(times[i]);
+            CelestialBody scalar = "Sun".equals(name) ? AstronomyEngine.calculateSun(date)
+                    : "Moon".equals(name) ? AstronomyEngine.calculateMoon(date)
+                    : AstronomyEngine.calculatePlanet(name, date);
+            assertEquals(name + " RA at " + times[i], Double.doubleToRawLongBits(scalar.getRa()),
+                    Double.doubleToRawLongBits(ra[i]));
+            assertEquals(name + " Dec at " + times[i], Double.doubleToRawLongBits(scalar.getDec()),
+                    Double.doubleToRawLongBits(dec[i]));
+        }
+    }
+}
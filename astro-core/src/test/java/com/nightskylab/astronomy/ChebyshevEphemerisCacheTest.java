@@ -0,0 +1,89 @@
+package com.nightskylab.astronomy;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Date;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Test;
+
+public class ChebyshevEphemerisCacheTest {
+    // Start of the sampled range, an arbitrary instant (2024-03-10 00:00 UTC)
+    private static final long START_MILLIS = 1710028800000L;
+    private static final long DAY_MILLIS = 86400000L;
+
+    // Segments sampled; every boundary between them is crossed
+    private static final int DAYS = 8;
+    private static final int SAMPLES = 4000;
+
+    // 12 coefficients over a 1-day segment fit to ~1e-12 rad (Moon, the fastest body)
+    private static final double TOLERANCE = 1e-11;
+
+    private final ChebyshevEphemerisCache cache = new ChebyshevEphemerisCache(256);
+
+    @After
+    public void shutdown() {
+        cache.shutdown();
+    }
+
+    @Test
+    public void sunMatchesDirectFormulas() throws InterruptedException {
+        check("Sun", ChebyshevEphemerisCache.BODY_SUN);
+    }
+
+    @Test
+    public void moonMatchesDirectFormulas() throws InterruptedException {
+        check("Moon", ChebyshevEphemerisCache.BODY_MOON);
+    }
+
+    @Test
+    public void planetsMatchDirectFormulas() throws InterruptedException {
+        for (int i = 0; i < AstronomyEngine.PLANET_NAMES.length; i++) {
+            check(AstronomyEngine.PLANET_NAMES[i], ChebyshevEphemerisCache.BODY_FIRST_PLANET + i);
+        }
+    }
+
+    private void check(String name, int body) throws InterruptedException {
+        Random random = new Random(body);
+        CelestialBody cached = new CelestialBody(name, CelestialBody.BodyType.PLANET);
+        for (int i = 0; i < SAMPLES; i++) {
+            // Every fourth sample sits within a millisecond of a segment boundary
+            // (segments start at 12:00 UTC like J2000.0)
+            long time = START_MILLIS + (long) (random.nextDouble() * DAYS * DAY_MILLIS);
+            if (i % 4 == 0)
+                time = time - time % DAY_MILLIS + DAY_MILLIS / 2 + (random.nextBoolean() ? 0 : -1);
+
+            Date date = new Date(time);
+            CelestialBody direct = "Sun".equals(name) ? AstronomyEngine.calculateSun(date)
+                    : "Moon".equals(name) ? AstronomyEngine.calculateMoon(date)
+                    : AstronomyEngine.calculatePlanet(name, date);
+            lookup(body, AstronomyEngine.daysSinceJ2000(time), cached);
+
+            double error = separation(direct.getRa(), direct.getDec(), cached.getRa(), cached.getDec());
+            assertTrue(name + " off by " + error + " rad at " + time, error < TOLERANCE);
+        }
+    }
+
+    /**
+     * Look up a position, waiting for the background fit on a miss.
+     */
+    private void lookup(int body, double d, CelestialBody out) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!cache.lookup(body, d, out)) {
+            if (System.currentTimeMillis() > deadline)
+                fail("Segment never fitted for body " + body + " at day " + d);
+            Thread.sleep(1);
+        }
+    }
+
+    /**
+     * Angle between two equatorial directions, stable for tiny angles.
+     */
+    private static double separation(double ra1, double dec1, double ra2, double dec2) {
+        double sinDDec = Math.sin((dec2 - dec1) / 2);
+        double sinDRa = Math.sin((ra2 - ra1) / 2);
+        double h = sinDDec * sinDDec + Math.cos(dec1) * Math.cos(dec2) * sinDRa * sinDRa;
+        return 2 * Math.asin(Math.min(1, Math.sqrt(h)));
+    }
+}
@@ -0,0 +1,31 @@
+package com.nightskylab.astronomy;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class PrecessedVectorsTest {
+    // 2026-01-01 00:00 UTC, about 0.36 degrees of precession from J2000.0
+    private static final long TIME_MILLIS = 1767225600000L;
+
+    @Test
+    public void precessNowPublishesBeforeReturning() {
+        float[] j2000 = new float[3];
+        Coordinates.equatorialToCartesian(Math.toRadians(101.29), Math.toRadians(-16.72), j2000, 0);
+        PrecessedVectors vectors = new PrecessedVectors(j2000);
+
+        vectors.precessNow(TIME_MILLIS);
+
+        long bucket = Precession.bucket(TIME_MILLIS);
+        double[] expectedMatrix = new double[9];
+        Precession.matrixForBucket(bucket, expectedMatrix);
+        double[] matrix = new double[9];
+        float[] precessed = vectors.get(matrix);
+
+        assertEquals(bucket, vectors.getBucket());
+        assertArrayEquals(expectedMatrix, matrix, 0);
+        assertArrayEquals(PrecessedVectors.precess(j2000, expectedMatrix), precessed, 0);
+        assertEquals(j2000, vectors.getJ2000());
+    }
+}
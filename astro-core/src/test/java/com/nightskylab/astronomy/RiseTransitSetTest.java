@@ -0,0 +1,190 @@
+package com.nightskylab.astronomy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Calendar;
+import java.util.Random;
+import java.util.TimeZone;
+import org.junit.Test;
+
+public class RiseTransitSetTest {
+    private static final long MINUTE_MILLIS = 60000L;
+    private static final long DAY_MILLIS = 86400000L;
+
+    // 2026-03-10 07:30 UTC
+    private static final long FIXED_START_MILLIS = 1773127800000L;
+    private static final int FIXED_COUNT = 300;
+    private static final long SCAN_STEP_MILLIS = 10000L;
+
+    @Test
+    public void fixedMatchesAltitudeScan() {
+        double lat = Math.toRadians(48.1);
+        double lon = 11.6;
+        double h0 = RiseTransitSet.STAR_HORIZON;
+
+        Random random = new Random(7);
+        double[] ra = new double[FIXED_COUNT];
+        double[] dec = new double[FIXED_COUNT];
+        for (int i = 0; i < FIXED_COUNT; i++) {
+            ra[i] = random.nextDouble() * 2 * Math.PI;
+            dec[i] = Math.asin(random.nextDouble() * 2 - 1);
+        }
+        long[] rise = new long[FIXED_COUNT];
+        long[] transit = new long[FIXED_COUNT];
+        long[] set = new long[FIXED_COUNT];
+        RiseTransitSet.calculateFixed(ra, dec, FIXED_COUNT, FIXED_START_MILLIS, lat, lon, h0, rise, transit, set);
+
+        int alwaysUp = 0, never = 0;
+        for (int i = 0; i < FIXED_COUNT; i++) {
+            long[] expected = scanFixed(ra[i], dec[i], lat, lon, h0);
+            String star = "star " + i + " dec " + Math.toDegrees(dec[i]);
+            assertEvent(star + " rise", expected[0], rise[i], SCAN_STEP_MILLIS);
+            assertEvent(star + " transit", expected[1], transit[i], SCAN_STEP_MILLIS);
+            assertEvent(star + " set", expected[2], set[i], SCAN_STEP_MILLIS);
+            if (rise[i] == RiseTransitSet.ALWAYS_UP)
+                alwaysUp++;
+            if (rise[i] == RiseTransitSet.NONE)
+                never++;
+        }
+        // The random stars include both sentinels
+        assertTrue(alwaysUp > 0 && never > 0);
+    }
+
+    /**
+     * First rise, upper transit and set by stepping through the window,
+     * with the position precessed to each instant.
+     */
+    private static long[] scanFixed(double ra, double dec, double lat, double lon, double h0) {
+        double x0 = Math.cos(dec) * Math.cos(ra);
+        double y0 = Math.cos(dec) * Math.sin(ra);
+        double z0 = Math.sin(dec);
+        double[] m = new double[9];
+
+        long[] events = { RiseTransitSet.NONE, RiseTransitSet.NONE, RiseTransitSet.NONE };
+        double lastAlt = 0, lastHa = 0;
+        boolean upAtStart = false;
+        for (long t = FIXED_START_MILLIS; t < FIXED_START_MILLIS + RiseTransitSet.WINDOW_MILLIS; t += SCAN_STEP_MILLIS) {
+            Precession.matrix(AstronomyEngine.daysSinceJ2000(t), m);
+            double x = m[0] * x0 + m[1] * y0 + m[2] * z0;
+            double y = m[3] * x0 + m[4] * y0 + m[5] * z0;
+            double z = m[6] * x0 + m[7] * y0 + m[8] * z0;
+            double ha = Coordinates.normalizeAngle(Coordinates.calculateLST(t, lon) - Math.atan2(y, x) + Math.PI)
+                    - Math.PI;
+            double alt = Math.asin(z * Math.sin(lat) + Math.sqrt(x * x + y * y) * Math.cos(lat) * Math.cos(ha)) - h0;
+
+            if (t == FIXED_START_MILLIS) {
+                upAtStart = alt >= 0;
+            } else {
+                if (events[0] == RiseTransitSet.NONE && lastAlt < 0 && alt >= 0)
+                    events[0] = t;
+                if (events[1] == RiseTransitSet.NONE && lastHa < 0 && ha >= 0 && ha - lastHa < Math.PI)
+                    events[1] = t;
+                if (events[2] == RiseTransitSet.NONE && lastAlt >= 0 && alt < 0)
+                    events[2] = t;
+            }
+            lastAlt = alt;
+            lastHa = ha;
+        }
+        if (events[0] == RiseTransitSet.NONE && events[2] == RiseTransitSet.NONE && upAtStart) {
+            events[0] = RiseTransitSet.ALWAYS_UP;
+            events[2] = RiseTransitSet.ALWAYS_UP;
+        }
+        return events;
+    }
+
+    @Test
+    public void sunMatchesAlmanac() {
+        // Published sunrise and sunset, rounded to the minute
+        checkSun("London 2024-06-20", 51.5074, -0.1278, utc(2024, 6, 20, 0, 0), utc(2024, 6, 20, 3, 43),
+                utc(2024, 6, 20, 20, 21));
+        checkSun("London 2024-12-21", 51.5074, -0.1278, utc(2024, 12, 21, 0, 0), utc(2024, 12, 21, 8, 4),
+                utc(2024, 12, 21, 15, 54));
+        // Windows start at local midnight (EDT, AEDT)
+        checkSun("New York 2024-06-20", 40.7128, -74.0060, utc(2024, 6, 20, 4, 0), utc(2024, 6, 20, 9, 25),
+                utc(2024, 6, 21, 0, 31));
+        checkSun("Sydney 2024-12-21", -33.8688, 151.2093, utc(2024, 12, 20, 13, 0), utc(2024, 12, 20, 18, 41),
+                utc(2024, 12, 21, 9, 6));
+    }
+
+    private static void checkSun(String place, double latDeg, double lonDeg, long start, long rise, long set) {
+        long[] out = new long[3];
+        new RiseTransitSet.Tracker("Sun", Math.toRadians(latDeg), lonDeg, RiseTransitSet.SUN_HORIZON)
+                .calculate(start, out);
+        assertEvent(place + " sunrise", rise, out[RiseTransitSet.Tracker.RISE], 2 * MINUTE_MILLIS);
+        assertEvent(place + " sunset", set, out[RiseTransitSet.Tracker.SET], 2 * MINUTE_MILLIS);
+    }
+
+    @Test
+    public void trackerMatchesColdScan() {
+        // Mid-latitude, southern and above the Arctic Circle around midnight sun onset
+        double[][] places = { { 51.5, -0.1 }, { -33.9, 151.2 }, { 69.6, 19.0 } };
+        String[] bodies = { "Sun", "Moon", "Mercury", "Venus", "Mars", "Jupiter", "Saturn" };
+
+        // Whole days, then random steps of up to two days either way (the
+        // hint range) so events also land just after a window start
+        Random random = new Random(3);
+        for (double[] place : places) {
+            for (String body : bodies) {
+                double lat = Math.toRadians(place[0]);
+                double h0 = "Sun".equals(body) ? RiseTransitSet.SUN_HORIZON
+                        : "Moon".equals(body) ? RiseTransitSet.MOON_HORIZON : RiseTransitSet.STAR_HORIZON;
+                RiseTransitSet.Tracker tracker = new RiseTransitSet.Tracker(body, lat, place[1], h0);
+                long[] hinted = new long[3];
+                long[] cold = new long[3];
+
+                long start = utc(2026, 5, 1, 18, 0);
+                for (int night = 0; night < 60; night++) {
+                    tracker.calculate(start, hinted);
+                    new RiseTransitSet.Tracker(body, lat, place[1], h0).calculate(start, cold);
+                    for (int event = 0; event < 3; event++) {
+                        assertEvent(body + " at " + place[0] + " night " + night + " event " + event, cold[event],
+                                hinted[event], 2000L);
+                    }
+                    start += night < 10 ? DAY_MILLIS : (long) ((random.nextDouble() * 4 - 2) * DAY_MILLIS);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void hintDoesNotSkipEarlierEvent() {
+        // Windows where the predicted event is real but the same event also
+        // falls within minutes of the window start: a Saturn transit (start
+        // 2026-05-16 21:46:38 UTC), a Venus rise (2026-11-27 05:20:52 UTC)
+        // and a Mars set (2026-04-18 04:15:10 UTC)
+        checkAgainstCold("Saturn", 69.0, 169.5, 1778882988000L, 1778967998000L);
+        checkAgainstCold("Venus", -52.1, -45.0, 1795758922000L, 1795756852000L);
+        checkAgainstCold("Mars", -40.2, -174.5, 1776572388000L, 1776485710000L);
+    }
+
+    private static void checkAgainstCold(String body, double latDeg, double lonDeg, long previous, long start) {
+        double lat = Math.toRadians(latDeg);
+        long[] hinted = new long[3];
+        long[] cold = new long[3];
+        RiseTransitSet.Tracker tracker = new RiseTransitSet.Tracker(body, lat, lonDeg, RiseTransitSet.STAR_HORIZON);
+        tracker.calculate(previous, hinted);
+        tracker.calculate(start, hinted);
+        new RiseTransitSet.Tracker(body, lat, lonDeg, RiseTransitSet.STAR_HORIZON).calculate(start, cold);
+        for (int event = 0; event < 3; event++) {
+            assertEvent(body + " event " + event, cold[event], hinted[event], 2000L);
+        }
+    }
+
+    private static void assertEvent(String message, long expected, long actual, long tolerance) {
+        if (expected == RiseTransitSet.NONE || expected == RiseTransitSet.ALWAYS_UP
+                || actual == RiseTransitSet.NONE || actual == RiseTransitSet.ALWAYS_UP) {
+            assertEquals(message, expected, actual);
+        } else {
+            assertTrue(message + ": expected " + expected + " but was " + actual,
+                    Math.abs(actual - expected) <= tolerance);
+        }
+    }
+
+    private static long utc(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        calendar.clear();
+        calendar.set(year, month - 1, day, hour, minute);
+        return calendar.getTimeInMillis();
+    }
+}
@@ -0,0 +1,274 @@
+package com.nightskylab.astronomy;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class SkyProjectionTest {
+    private static final int VIEWS = 200;
+    private static final int POINTS = 2000;
+    private static final float GLOBE_RADIUS = 1000f;
+
+    /**
+     * Random orientation over the full range SkyView produces.
+     */
+    private static double[] randomView(Random random) {
+        return new double[] {
+                random.nextDouble() * 2 * Math.PI, // LST
+                (random.nextDouble() - 0.5) * Math.PI, // latitude
+                random.nextDouble() * 2 * Math.PI, // view azimuth
+                (random.nextDouble() - 0.5) * Math.PI, // view altitude
+                0.3 + random.nextDouble() * 2.7 // fovScale
+        };
+    }
+
+    /**
+     * Uniform random unit vector.
+     */
+    private static double[] randomVector(Random random) {
+        double z = random.nextDouble() * 2 - 1;
+        double angle = random.nextDouble() * 2 * Math.PI;
+        double r = Math.sqrt(1 - z * z);
+        return new double[] { r * Math.cos(angle), r * Math.sin(angle), z };
+    }
+
+    /**
+     * Azimuth and altitude of an equatorial unit vector, from north
+     * through east.
+     */
+    private static double[] toHorizontal(double[] v, double lst, double lat) {
+        double sinLst = Math.sin(lst), cosLst = Math.cos(lst);
+        double sinLat = Math.sin(lat), cosLat = Math.cos(lat);
+        double north = -sinLat * cosLst * v[0] - sinLat * sinLst * v[1] + cosLat * v[2];
+        double east = -sinLst * v[0] + cosLst * v[1];
+        double up = cosLat * cosLst * v[0] + cosLat * sinLst * v[1] + sinLat * v[2];
+        return new double[] { Math.atan2(east, north), Math.asin(Math.max(-1, Math.min(1, up))) };
+    }
+
+    @Test
+    public void projectMatchesProjectHorizontal() {
+        Random random = new Random(2);
+        SkyProjection projection = new SkyProjection();
+        projection.setScreen(GLOBE_RADIUS, GLOBE_RADIUS, GLOBE_RADIUS);
+        float[] matrixOut = new float[2];
+        float[] trigOut = new float[2];
+
+        int visible = 0;
+        for (int view = 0; view < VIEWS; view++) {
+            double[] v = randomView(random);
+            projection.setOrientation(v[0], v[1], v[2], v[3], v[4]);
+            for (int i = 0; i < POINTS; i++) {
+                double[] p = randomVector(random);
+                double[] h = toHorizontal(p, v[0], v[1]);
+                boolean byMatrix = projection.project(p[0], p[1], p[2], matrixOut);
+                boolean byTrig = projection.projectHorizontalReference(h[0], h[1], trigOut);
+                assertEquals("visibility", byTrig, byMatrix);
+                if (byMatrix) {
+                    assertEquals(trigOut[0], matrixOut[0], 1e-3);
+                    assertEquals(trigOut[1], matrixOut[1], 1e-3);
+                    visible++;
+                }
+            }
+        }
+        // Make sure the comparison actually covered projected points
+        assertTrue(visible > VIEWS * POINTS / 20);
+    }
+
+    @Test
+    public void fastMathStaysWithinErrorBound() {
+        // Panning accumulates the view azimuth without wrapping it
+        double[] turns = { 0, 1, -3, 16, 64, -1000 };
+        double bound = SkyProjection.MAX_FAST_ERROR_PER_RADIUS * GLOBE_RADIUS;
+
+        Random random = new Random(9);
+        SkyProjection projection = new SkyProjection();
+        projection.setScreen(GLOBE_RADIUS, GLOBE_RADIUS, GLOBE_RADIUS);
+        float[] fastOut = new float[2];
+        float[] referenceOut = new float[2];
+
+        double worst = 0;
+        int visible = 0;
+        for (int view = 0; view < VIEWS; view++) {
+            double[] v = randomView(random);
+            double viewAzimuth = v[2] + turns[view % turns.length] * 2 * Math.PI;
+            projection.setOrientation(v[0], v[1], viewAzimuth, v[3], v[4]);
+            for (int i = 0; i < POINTS; i++) {
+                double az = random.nextDouble() * 2 * Math.PI;
+                double alt = Math.asin(random.nextDouble() * 2 - 1);
+                boolean fast = projection.projectHorizontalFast(az, alt, fastOut);
+                boolean reference = projection.projectHorizontalReference(az, alt, referenceOut);
+                if (fast != reference) {
+                    // Only points on a clip edge may flip, by rounding
+                    float[] out = fast ? fastOut : referenceOut;
+                    assertTrue("visibility flipped inside the globe",
+                            nearClipEdge(out[0] - GLOBE_RADIUS, out[1] - GLOBE_RADIUS, v[4], bound));
+                    continue;
+                }
+                if (fast) {
+                    worst = Math.max(worst, Math.hypot(fastOut[0] - referenceOut[0], fastOut[1] - referenceOut[1]));
+                    visible++;
+                }
+            }
+        }
+        assertTrue("fast-math error " + worst + " px", worst <= bound);
+        assertTrue(visible > VIEWS * POINTS / 20);
+    }
+
+    @Test
+    public void arcStaysWithinTolerance() {
+        double tolerance = 0.5;
+        int samples = 200;
+
+        Random random = new Random(5);
+        SkyProjection projection = new SkyProjection();
+        projection.setScreen(GLOBE_RADIUS, GLOBE_RADIUS, GLOBE_RADIUS);
+        List<float[]> polyline = new ArrayList<>();
+        SkyProjection.ArcSink sink = new SkyProjection.ArcSink() {
+            @Override
+            public void moveTo(float x, float y) {
+                polyline.add(new float[] { x, y, 0 });
+            }
+
+            @Override
+            public void lineTo(float x, float y) {
+                polyline.add(new float[] { x, y, 1 });
+            }
+        };
+        float[] out = new float[2];
+
+        double worst = 0;
+        long adaptive = 0, uniform = 0;
+        int checked = 0;
+        for (int view = 0; view < VIEWS; view++) {
+            double[] v = randomView(random);
+            projection.setOrientation(v[0], v[1], v[2], v[3], v[4]);
+            double step = SkyProjection.maxArcStep(v[4], GLOBE_RADIUS, tolerance);
+            for (int i = 0; i < 50; i++) {
+                // Segments up to 60 degrees, as long as the longest figure lines
+                double[] a = randomVector(random);
+                double[] b = towards(a, randomVector(random), random.nextDouble() * Math.PI / 3);
+                float[] vectors = { (float) a[0], (float) a[1], (float) a[2], (float) b[0], (float) b[1],
+                        (float) b[2] };
+                double angle = Math.acos(Math.max(-1, Math.min(1, dot(vectors))));
+
+                // Only arcs entirely on the globe have a polyline to compare
+                boolean allVisible = true;
+                for (int s = 0; s <= samples && allVisible; s++) {
+                    double[] p = slerp(vectors, angle, (double) s / samples);
+                    allVisible = projection.project(p[0], p[1], p[2], out);
+                }
+                if (!allVisible)
+                    continue;
+
+                polyline.clear();
+                projection.project(vectors[0], vectors[1], vectors[2], out);
+                sink.moveTo(out[0], out[1]);
+                assertTrue(projection.projectArc(vectors, 0, 1, tolerance, true, sink));
+                adaptive += polyline.size() - 1;
+                uniform += Math.max(1, (int) Math.ceil(angle / step));
+
+                for (int s = 0; s <= samples; s++) {
+                    double[] p = slerp(vectors, angle, (double) s / samples);
+                    projection.project(p[0], p[1], p[2], out);
+                    worst = Math.max(worst, distanceToPolyline(out[0], out[1], polyline));
+                }
+                checked++;
+            }
+        }
+        assertTrue("arc error " + worst + " px", worst <= tolerance * 1.1);
+        // Adaptive splitting only spends vertices where the arc bends
+        assertTrue("adaptive " + adaptive + " vs uniform " + uniform, adaptive < uniform);
+        assertTrue(checked > VIEWS * 5);
+    }
+
+    @Test
+    public void arcStopsAtGlobeEdge() {
+        SkyProjection projection = new SkyProjection();
+        projection.setScreen(GLOBE_RADIUS, GLOBE_RADIUS, GLOBE_RADIUS);
+        // Looking at the zenith from the north pole, so vectors are horizontal
+        projection.setOrientation(0, Math.PI / 2, 0, Math.PI / 2, 1);
+        float[] vectors = { 0, 0, 1, 1, 0, 0, 0, 1, 0 };
+        List<float[]> polyline = new ArrayList<>();
+        SkyProjection.ArcSink sink = new SkyProjection.ArcSink() {
+            @Override
+            public void moveTo(float x, float y) {
+                polyline.add(new float[] { x, y, 0 });
+            }
+
+            @Override
+            public void lineTo(float x, float y) {
+                polyline.add(new float[] { x, y, 1 });
+            }
+        };
+
+        // Zenith to horizon: drawn until it leaves the globe
+        assertTrue(!projection.projectArc(vectors, 0, 1, 0.5, false, sink));
+        assertTrue(polyline.size() > 1);
+        float[] last = polyline.get(polyline.size() - 1);
+        double edge = Math.hypot(last[0] - GLOBE_RADIUS, last[1] - GLOBE_RADIUS);
+        assertTrue("stopped " + edge + " px from center", edge > projection.getClipRadius() - 1);
+
+        // Along the horizon: nothing to draw
+        polyline.clear();
+        assertTrue(!projection.projectArc(vectors, 1, 2, 0.5, false, sink));
+        assertTrue(polyline.isEmpty());
+    }
+
+    private static double dot(float[] v) {
+        return (double) v[0] * v[3] + (double) v[1] * v[4] + (double) v[2] * v[5];
+    }
+
+    /**
+     * Unit vector at the given angle from a, towards direction d.
+     */
+    private static double[] towards(double[] a, double[] d, double angle) {
+        double k = d[0] * a[0] + d[1] * a[1] + d[2] * a[2];
+        double[] t = { d[0] - k * a[0], d[1] - k * a[1], d[2] - k * a[2] };
+        double n = Math.sqrt(t[0] * t[0] + t[1] * t[1] + t[2] * t[2]);
+        double c = Math.cos(angle), s = Math.sin(angle) / n;
+        return new double[] { c * a[0] + s * t[0], c * a[1] + s * t[1], c * a[2] + s * t[2] };
+    }
+
+    /**
+     * Point a fraction t along the great circle between the two vectors.
+     */
+    private static double[] slerp(float[] v, double angle, double t) {
+        double sin = Math.sin(angle);
+        double wa = sin < 1e-9 ? 1 - t : Math.sin((1 - t) * angle) / sin;
+        double wb = sin < 1e-9 ? t : Math.sin(t * angle) / sin;
+        return new double[] { wa * v[0] + wb * v[3], wa * v[1] + wb * v[4], wa * v[2] + wb * v[5] };
+    }
+
+    /**
+     * Screen distance from a point to the nearest drawn segment.
+     */
+    private static double distanceToPolyline(double x, double y, List<float[]> polyline) {
+        double best = Double.MAX_VALUE;
+        for (int i = 1; i < polyline.size(); i++) {
+            float[] p = polyline.get(i - 1), q = polyline.get(i);
+            if (q[2] == 0)
+                continue;
+            double dx = q[0] - p[0], dy = q[1] - p[1];
+            double lengthSquared = dx * dx + dy * dy;
+            double t = lengthSquared == 0 ? 0
+                    : Math.max(0, Math.min(1, ((x - p[0]) * dx + (y - p[1]) * dy) / lengthSquared));
+            best = Math.min(best, Math.hypot(x - p[0] - t * dx, y - p[1] - t * dy));
+        }
+        return best;
+    }
+
+    /**
+     * Whether a screen offset from the globe center lies within tolerance
+     * of the 95% globe clip or of the z >= 0.02 hemisphere cutoff.
+     */
+    private static boolean nearClipEdge(double dx, double dy, double fovScale, double tolerance) {
+        double r = Math.hypot(dx, dy) / GLOBE_RADIUS;
+        double cutoff = Math.sqrt(1 - 0.02 * 0.02) / (1.02 * fovScale);
+        return Math.abs(r - 0.95) * GLOBE_RADIUS < tolerance
+                || Math.abs(r - cutoff) * GLOBE_RADIUS < tolerance;
+    }
+}
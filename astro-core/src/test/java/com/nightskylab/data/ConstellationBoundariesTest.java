@@ -0,0 +1,112 @@
+package com.nightskylab.data;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import org.junit.Test;
+
+public class ConstellationBoundariesTest {
+    private static final String[] NAMES = { "AND", "ORI", "UMA", "CYG", "SER1", "SER2", "LEO", "CRU" };
+
+    private static ConstellationBoundaries load(String table) {
+        ConstellationBoundaries boundaries = new ConstellationBoundaries();
+        boundaries.load(new ByteArrayInputStream(table.getBytes(StandardCharsets.UTF_8)));
+        return boundaries;
+    }
+
+    @Test
+    public void lookupMatchesStripScan() {
+        // Random strips between a north cap and a south cap, in table order
+        Random random = new Random(7);
+        List<double[]> strips = new ArrayList<>();
+        List<String> abbreviations = new ArrayList<>();
+        StringBuilder table = new StringBuilder("# raLow raHigh decLow abbreviation\n");
+        strips.add(new double[] { 0, 24, 88 });
+        abbreviations.add("UMI");
+        double dec = 88;
+        while (dec > -85) {
+            dec -= random.nextDouble() * 3;
+            // Rounded as written to the table
+            double low = Math.round(random.nextDouble() * 24 * 1e4) / 1e4;
+            double high = Math.min(24, Math.round((low + random.nextDouble() * 8) * 1e4) / 1e4);
+            if (high <= low)
+                continue;
+            strips.add(new double[] { low, high, Math.round(dec * 1e4) / 1e4 });
+            abbreviations.add(NAMES[random.nextInt(NAMES.length)]);
+        }
+        strips.add(new double[] { 0, 24, -90 });
+        abbreviations.add("OCT");
+        for (int k = 0; k < strips.size(); k++) {
+            double[] s = strips.get(k);
+            table.append(String.format(Locale.ROOT, "%8.4f %8.4f %9.4f %s%n", s[0], s[1], s[2],
+                    abbreviations.get(k)));
+        }
+
+        ConstellationBoundaries boundaries = load(table.toString());
+        assertTrue(boundaries.isComplete());
+
+        for (int i = 0; i < 200000; i++) {
+            double ra = random.nextDouble() * 24;
+            double decDegrees = Math.toDegrees(Math.asin(random.nextDouble() * 2 - 1));
+            // Half the points sit exactly on a strip edge
+            double[] edge = strips.get(random.nextInt(strips.size()));
+            if (i % 4 == 0)
+                ra = random.nextBoolean() || edge[1] >= 24 ? edge[0] : edge[1];
+            if (i % 4 == 1)
+                decDegrees = edge[2];
+
+            String expected = null;
+            for (int k = 0; k < strips.size(); k++) {
+                double[] s = strips.get(k);
+                if (decDegrees >= s[2] && ra >= s[0] && ra < s[1]) {
+                    expected = abbreviations.get(k);
+                    break;
+                }
+            }
+            int found = boundaries.findB1875(ra, decDegrees);
+            assertEquals(ra + " " + decDegrees, expected, boundaries.getAbbreviation(found));
+        }
+    }
+
+    @Test
+    public void gapInStripsIsReported() {
+        assertTrue(load("0 24 0 AAA\n0 24 -90 BBB\n").isComplete());
+        assertFalse(load("0 24 0 AAA\n0 12 -90 BBB\n").isComplete());
+        assertFalse(new ConstellationBoundaries().isComplete());
+    }
+
+    @Test
+    public void knownStarsLandInTheirConstellations() throws Exception {
+        // The IAU table shipped with the app, see app/catalog
+        File file = new File(System.getProperty("constellationBounds", "constellation_bounds.dat"));
+        assumeTrue("IAU boundary table not installed: " + file, file.exists());
+        ConstellationBoundaries boundaries = new ConstellationBoundaries();
+        boundaries.load(new FileInputStream(file));
+        assertTrue(boundaries.isComplete());
+
+        // J2000.0 positions in degrees
+        assertConstellation(boundaries, "UMi", 37.9546, 89.2641); // Polaris
+        assertConstellation(boundaries, "Ori", 88.7929, 7.4071); // Betelgeuse
+        assertConstellation(boundaries, "Cru", 186.6496, -63.0991); // Acrux
+    }
+
+    private static void assertConstellation(ConstellationBoundaries boundaries, String expected, double raDegrees,
+            double decDegrees) {
+        double ra = Math.toRadians(raDegrees);
+        double dec = Math.toRadians(decDegrees);
+        int found = boundaries.find(Math.cos(dec) * Math.cos(ra), Math.cos(dec) * Math.sin(ra), Math.sin(dec));
+        assertTrue("no constellation at " + raDegrees + " " + decDegrees, found >= 0);
+        assertTrue(expected + " != " + boundaries.getAbbreviation(found),
+                expected.equalsIgnoreCase(boundaries.getAbbreviation(found)));
+    }
+}